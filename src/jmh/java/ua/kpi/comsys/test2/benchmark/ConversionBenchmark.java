@@ -0,0 +1,81 @@
+package ua.kpi.comsys.test2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+import ua.kpi.comsys.test2.implementation.internal.BaseConverter;
+import ua.kpi.comsys.test2.implementation.internal.BitwiseAndOperation;
+
+/**
+ * Перетворення між системами числення та додаткова операція AND.
+ * <p>
+ * {@code digits} — кількість цифр операнда у його власній основі {@code base};
+ * для {@code fromDecimal} це довжина десяткового рядка.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int digits;
+
+    @Param({"2", "3", "8"})
+    int base;
+
+    NumberListImpl number;
+    NumberListImpl other;
+    String decimal;
+
+    /** Основа для {@link #convert()}: вісімкова, а для вісімкових чисел — трійкова. */
+    int targetBase;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        number = Fixtures.randomNumber(digits, base, Fixtures.SEED);
+        other = Fixtures.randomNumber(digits, base, Fixtures.SEED + 1);
+        decimal = Fixtures.randomDecimal(digits, Fixtures.SEED);
+        targetBase = base == 8 ? 3 : 8;
+    }
+
+    @Benchmark
+    public NumberListImpl convert() {
+        return BaseConverter.convert(number, targetBase);
+    }
+
+    @Benchmark
+    public String toDecimal() {
+        return BaseConverter.toDecimal(number);
+    }
+
+    @Benchmark
+    public NumberListImpl fromDecimal() {
+        return BaseConverter.fromDecimal(decimal, base);
+    }
+
+    @Benchmark
+    public NumberListImpl bitwiseAnd() {
+        return BitwiseAndOperation.apply(number, other);
+    }
+}
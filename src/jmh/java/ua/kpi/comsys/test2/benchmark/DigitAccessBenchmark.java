@@ -0,0 +1,77 @@
+package ua.kpi.comsys.test2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Доступ до окремих цифр за індексом та зсуви.
+ * <p>
+ * Розмір числа не змінюється між викликами: вставка завжди
+ * супроводжується видаленням тієї самої позиції.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DigitAccessBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    int digits;
+
+    @Param({"2", "3", "8"})
+    int base;
+
+    NumberListImpl list;
+    int middle;
+    byte digit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = Fixtures.randomNumber(digits, base, Fixtures.SEED);
+        middle = digits / 2;
+        digit = (byte) (base - 1);
+    }
+
+    @Benchmark
+    public Byte get() {
+        return list.get(middle);
+    }
+
+    @Benchmark
+    public Byte set() {
+        return list.set(middle, digit);
+    }
+
+    @Benchmark
+    public Byte addThenRemove() {
+        list.add(middle, digit);
+        return list.remove(middle);
+    }
+
+    @Benchmark
+    public NumberListImpl shiftLeft() {
+        list.shiftLeft();
+        return list;
+    }
+}
@@ -0,0 +1,76 @@
+package ua.kpi.comsys.test2.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Завантаження числа з файлу та збереження у файл.
+ * <p>
+ * {@code digits} — довжина десяткового представлення числа у файлі.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FileBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int digits;
+
+    File source;
+    File target;
+    NumberListImpl number;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        source = File.createTempFile("number-source", ".txt");
+        target = File.createTempFile("number-target", ".txt");
+
+        try (PrintWriter pw = new PrintWriter(source)) {
+            pw.print(Fixtures.randomDecimal(digits, Fixtures.SEED));
+        }
+        number = new NumberListImpl(source);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        source.delete();
+        target.delete();
+    }
+
+    @Benchmark
+    public NumberListImpl load() {
+        return new NumberListImpl(source);
+    }
+
+    @Benchmark
+    public File save() {
+        number.saveList(target);
+        return target;
+    }
+}
@@ -0,0 +1,61 @@
+package ua.kpi.comsys.test2.benchmark;
+
+import java.util.Random;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Детерміновані вхідні дані для бенчмарків.
+ * <p>
+ * Однакове зерно генератора дає однакові числа між запусками,
+ * тому результати різних версій коду можна порівнювати між собою.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+final class Fixtures {
+
+    static final long SEED = 26;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Створює випадкове число без провідних нулів.
+     *
+     * @param digits кількість цифр
+     * @param base   основа системи числення
+     * @param seed   зерно генератора
+     * @return нове число
+     */
+    static NumberListImpl randomNumber(int digits, int base, long seed) {
+        Random rnd = new Random(seed);
+        NumberListImpl list = new NumberListImpl(base);
+
+        list.add((byte) (1 + rnd.nextInt(base - 1)));
+        for (int i = 1; i < digits; i++)
+            list.add((byte) rnd.nextInt(base));
+
+        return list;
+    }
+
+    /**
+     * Створює рядок з випадковим десятковим числом без провідних нулів.
+     *
+     * @param digits кількість цифр
+     * @param seed   зерно генератора
+     * @return десяткове представлення числа
+     */
+    static String randomDecimal(int digits, long seed) {
+        Random rnd = new Random(seed);
+        StringBuilder sb = new StringBuilder(digits);
+
+        sb.append((char) ('1' + rnd.nextInt(9)));
+        for (int i = 1; i < digits; i++)
+            sb.append((char) ('0' + rnd.nextInt(10)));
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,294 @@
+package ua.kpi.comsys.test2.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Звіт про масштабування операцій зі зростанням довжини числа.
+ * <p>
+ * Для кожної основи системи числення та кожної довжини
+ * {@code 10^2, 10^3, ..., 10^8} (до {@code --max-digits}) генеруються
+ * детерміновані випадкові числа ({@link Fixtures}), над якими вимірюються
+ * час, обсяг виділеної пам'яті та піковий розмір купи кожної операції.
+ * Довжина, на якій операція за прогнозом перевищить бюджет часу або
+ * на якій числа не вмістяться у купу, пропускається разом із усіма більшими.
+ * <p>
+ * Результати записуються у {@code <out>/<tag>.csv} та {@code <out>/<tag>.md};
+ * Markdown-звіт містить також показники степеня зростання часу та пам'яті,
+ * отримані лінійною регресією у логарифмічному масштабі.
+ * <p>
+ * Параметри командного рядка (усі необов'язкові):
+ * {@code --max-digits=N}, {@code --budget=секунди}, {@code --bases=2,3,8},
+ * {@code --out=каталог}, {@code --tag=назва}.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public final class ScalingReport {
+
+    /** Приблизна кількість байтів купи на одну цифру двох чисел фікстури. */
+    private static final long HEAP_PER_DIGIT = 160;
+
+    /**
+     * Мінімальна тривалість вимірювання; швидкі операції повторюються,
+     * повільні — виконуються ще раз, якщо це вкладається в бюджет,
+     * щоб перше виконання із завантаженням класів не спотворювало результат.
+     */
+    private static final long MIN_MEASURE_NANOS = 20_000_000;
+
+    /** Розміри, починаючи з яких будується оцінка степеня зростання. */
+    private static final int MIN_FIT_DIGITS = 1_000;
+
+    private record Fixture(int base, int digits, NumberListImpl number, NumberListImpl other, File file) {
+    }
+
+    private record Row(String operation, int base, int digits, String status,
+                       double nanos, long allocated, long peakHeap) {
+    }
+
+    private static final Map<String, Function<Fixture, Runnable>> OPERATIONS = new LinkedHashMap<>();
+
+    static {
+        OPERATIONS.put("construct", f -> {
+            byte[] digits = f.number().toByteArray();
+            return () -> NumberListImpl.fromDigits(digits, f.base());
+        });
+        OPERATIONS.put("toDecimalString", f -> () -> {
+            int last = f.number().size() - 1;
+            f.number().setDigit(last, f.number().getDigit(last));
+            f.number().toDecimalString();
+        });
+        OPERATIONS.put("changeScale", f -> f.number()::changeScale);
+        OPERATIONS.put("additionalOperation", f -> () -> f.number().additionalOperation(f.other()));
+        OPERATIONS.put("save", f -> () -> f.number().saveList(f.file()));
+        OPERATIONS.put("load", f -> {
+            f.number().saveList(f.file());
+            return () -> new NumberListImpl(f.file());
+        });
+        OPERATIONS.put("shifts", f -> () -> {
+            f.number().shiftLeft();
+            f.number().shiftRight();
+        });
+        OPERATIONS.put("sortAscending", f -> () -> f.number().copy().sortAscending());
+    }
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(p -> p.getType() == MemoryType.HEAP)
+        .toList();
+
+    private final long maxDigits;
+    private final long budgetNanos;
+    private final int[] bases;
+
+    private ScalingReport(long maxDigits, double budgetSeconds, int[] bases) {
+        this.maxDigits = maxDigits;
+        this.budgetNanos = (long) (budgetSeconds * 1e9);
+        this.bases = bases;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("max-digits", "100000000");
+        options.put("budget", "10");
+        options.put("bases", "2,3,8,10,16");
+        options.put("out", "scaling-report");
+        options.put("tag", "local");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0 || !options.containsKey(arg.substring(2, eq)))
+                throw new IllegalArgumentException("Unknown option: " + arg + ", expected one of " + options.keySet());
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        int[] bases = Arrays.stream(options.get("bases").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        ScalingReport report = new ScalingReport(
+            Long.parseLong(options.get("max-digits")), Double.parseDouble(options.get("budget")), bases);
+
+        List<Row> rows = report.run();
+
+        Path out = Path.of(options.get("out"));
+        Files.createDirectories(out);
+        Path csv = out.resolve(options.get("tag") + ".csv");
+        Path md = out.resolve(options.get("tag") + ".md");
+        writeCsv(csv, rows);
+        writeMarkdown(md, rows);
+        System.out.println("Report written to " + csv + " and " + md);
+    }
+
+    private List<Row> run() throws IOException {
+        List<Row> rows = new ArrayList<>();
+        File file = File.createTempFile("scaling", ".txt");
+        try {
+            for (int base : bases) {
+                Map<String, Row> previous = new LinkedHashMap<>();
+                Map<String, Row> beforePrevious = new LinkedHashMap<>();
+
+                for (long digits = 100; digits <= maxDigits; digits *= 10) {
+                    int n = (int) digits;
+                    boolean fits = Runtime.getRuntime().maxMemory() >= HEAP_PER_DIGIT * digits;
+                    Fixture fixture = null;
+
+                    for (Map.Entry<String, Function<Fixture, Runnable>> op : OPERATIONS.entrySet()) {
+                        String name = op.getKey();
+                        Row last = previous.get(name);
+                        Row row;
+                        if (last != null && !last.status().equals("ok")) {
+                            row = skipped(name, base, n, last.status());
+                        } else if (!fits) {
+                            row = skipped(name, base, n, "heap");
+                        } else if (predictedNanos(last, beforePrevious.get(name), n) > budgetNanos) {
+                            row = skipped(name, base, n, "budget");
+                        } else {
+                            if (fixture == null)
+                                fixture = new Fixture(base, n,
+                                    Fixtures.randomNumber(n, base, Fixtures.SEED),
+                                    Fixtures.randomNumber(n, base, Fixtures.SEED + 1), file);
+                            row = measure(name, fixture, op.getValue().apply(fixture));
+                        }
+
+                        rows.add(row);
+                        System.out.printf(Locale.ROOT, "%-20s base %2d  %,12d digits  %s%n", name, base, n,
+                            row.status().equals("ok") ? String.format(Locale.ROOT, "%.3f ms", row.nanos() / 1e6)
+                                                      : "skipped (" + row.status() + ")");
+
+                        if (last != null) beforePrevious.put(name, last);
+                        previous.put(name, row);
+                    }
+                }
+            }
+        } finally {
+            file.delete();
+        }
+        return rows;
+    }
+
+    private static Row skipped(String operation, int base, int digits, String reason) {
+        return new Row(operation, base, digits, reason, Double.NaN, -1, -1);
+    }
+
+    /** Прогноз часу за двома попередніми вимірюваннями; без них — нуль. */
+    private static double predictedNanos(Row last, Row beforeLast, int digits) {
+        if (last == null) return 0;
+
+        double exponent = 2;
+        if (beforeLast != null && beforeLast.status().equals("ok"))
+            exponent = Math.max(1, Math.log(last.nanos() / beforeLast.nanos())
+                / Math.log((double) last.digits() / beforeLast.digits()));
+        return last.nanos() * Math.pow((double) digits / last.digits(), exponent);
+    }
+
+    private Row measure(String operation, Fixture fixture, Runnable op) {
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        op.run();
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        long peak = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+
+        if (nanos >= MIN_MEASURE_NANOS && 2 * nanos <= budgetNanos) {
+            start = System.nanoTime();
+            op.run();
+            nanos = Math.min(nanos, System.nanoTime() - start);
+        }
+        if (nanos < MIN_MEASURE_NANOS) {
+            int reps = (int) Math.min(100_000, MIN_MEASURE_NANOS / Math.max(nanos, 1) + 1);
+            for (int batch = 0; batch < 3; batch++) {
+                start = System.nanoTime();
+                for (int i = 0; i < reps; i++) op.run();
+                nanos = Math.min(nanos, (System.nanoTime() - start) / reps);
+            }
+        }
+
+        return new Row(operation, fixture.base(), fixture.digits(), "ok", nanos, allocated, peak);
+    }
+
+    private static void writeCsv(Path path, List<Row> rows) throws IOException {
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(path))) {
+            pw.println("operation,base,digits,status,time_ns,allocated_bytes,peak_heap_bytes");
+            for (Row r : rows)
+                pw.printf(Locale.ROOT, "%s,%d,%d,%s,%s,%s,%s%n", r.operation(), r.base(), r.digits(), r.status(),
+                    r.status().equals("ok") ? String.format(Locale.ROOT, "%.0f", r.nanos()) : "",
+                    r.allocated() < 0 ? "" : r.allocated(),
+                    r.peakHeap() < 0 ? "" : r.peakHeap());
+        }
+    }
+
+    private static void writeMarkdown(Path path, List<Row> rows) throws IOException {
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(path))) {
+            pw.println("# Scaling report");
+            pw.println();
+            pw.println("Growth exponents are least-squares slopes of log(value) against log(digits)");
+            pw.println("over measured sizes of at least " + MIN_FIT_DIGITS + " digits.");
+            pw.println();
+            pw.println("| operation | base | time exponent | allocation exponent |");
+            pw.println("|---|---:|---:|---:|");
+
+            Map<String, List<Row>> groups = new LinkedHashMap<>();
+            for (Row r : rows)
+                groups.computeIfAbsent(r.operation() + "/" + r.base(), k -> new ArrayList<>()).add(r);
+
+            for (List<Row> group : groups.values()) {
+                List<Row> fit = group.stream()
+                    .filter(r -> r.status().equals("ok") && r.digits() >= MIN_FIT_DIGITS)
+                    .toList();
+                pw.printf(Locale.ROOT, "| %s | %d | %s | %s |%n", group.get(0).operation(), group.get(0).base(),
+                    exponent(fit, Row::nanos), exponent(fit, r -> (double) r.allocated()));
+            }
+
+            for (List<Row> group : groups.values()) {
+                pw.println();
+                pw.printf(Locale.ROOT, "## %s, base %d%n%n", group.get(0).operation(), group.get(0).base());
+                pw.println("| digits | time, ms | allocated, MB | peak heap, MB |");
+                pw.println("|---:|---:|---:|---:|");
+                for (Row r : group) {
+                    if (!r.status().equals("ok")) {
+                        pw.printf(Locale.ROOT, "| %,d | skipped (%s) | | |%n", r.digits(), r.status());
+                        continue;
+                    }
+                    pw.printf(Locale.ROOT, "| %,d | %.3f | %.2f | %.1f |%n", r.digits(), r.nanos() / 1e6,
+                        r.allocated() / 1e6, r.peakHeap() / 1e6);
+                }
+            }
+        }
+    }
+
+    private static String exponent(List<Row> rows, Function<Row, Double> value) {
+        List<Row> points = rows.stream().filter(r -> value.apply(r) > 0).toList();
+        if (points.size() < 2) return "n/a";
+
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (Row r : points) {
+            double x = Math.log(r.digits());
+            double y = Math.log(value.apply(r));
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+        }
+        int n = points.size();
+        return String.format(Locale.ROOT, "%.2f", (n * sxy - sx * sy) / (n * sxx - sx * sx));
+    }
+}
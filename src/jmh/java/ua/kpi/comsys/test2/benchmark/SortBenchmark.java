@@ -0,0 +1,56 @@
+package ua.kpi.comsys.test2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Сортування цифр числа.
+ * <p>
+ * Кожен виклик сортує свіжу копію, тому вхід завжди невпорядкований.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int digits;
+
+    @Param({"2", "3", "8"})
+    int base;
+
+    NumberListImpl list;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        list = Fixtures.randomNumber(digits, base, Fixtures.SEED);
+    }
+
+    @Benchmark
+    public NumberListImpl sortAscending() {
+        list.sortAscending();
+        return list;
+    }
+}
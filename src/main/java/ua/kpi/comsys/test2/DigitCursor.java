@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2014-2025, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ * 
+ */
+
+package ua.kpi.comsys.test2;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Forward cursor over digits of a {@link NumberList} that works with
+ * primitive <tt>byte</tt> values instead of boxed {@link Byte} elements.<p>
+ * 
+ * Digits are returned from the most significant one to the least significant one.
+ * 
+ * @author Андрій Шевчук
+ *
+ */
+public interface DigitCursor {
+
+    /**
+     * Checks whether there are more digits to read.
+     * 
+     * @return <tt>true</tt> if {@link #nextDigit()} will return a digit
+     */
+    boolean hasNext();
+
+
+    /**
+     * Returns next digit and advances the cursor.
+     * 
+     * @return next digit
+     * @throws NoSuchElementException if there are no more digits
+     */
+    byte nextDigit();
+
+
+    /**
+     * Replaces the digit last returned by {@link #nextDigit()}.
+     * 
+     * @param digit - new digit value
+     * @throws IllegalStateException if {@link #nextDigit()} was not called yet
+     * @throws IllegalArgumentException if digit is invalid for the list's base
+     */
+    void setDigit(byte digit);
+}
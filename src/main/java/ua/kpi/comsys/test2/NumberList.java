@@ -7,6 +7,8 @@
 package ua.kpi.comsys.test2;
 
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
 
 /**
  * List interface for software engineering professional practice
@@ -56,5 +58,94 @@ public interface NumberList extends List<Byte> {
      * Performs right cyclic shift in current list.  
      */
     void shiftRight();
-}
 
+
+    /**
+     * Reverses the order of digits in current list.
+     * Implementations may override it with a constant-time variant.
+     */
+    default void reverse() {
+        for (int i = 0, j = size() - 1; i < j; i++, j--) {
+            byte d = getDigit(i);
+            setDigit(i, getDigit(j));
+            setDigit(j, d);
+        }
+    }
+
+
+    //Primitive digit access
+
+    /**
+     * Returns digit at the specified position without boxing.
+     * Indexes starts from 0.
+     * 
+     * @param index - index of digit
+     * @return digit value
+     */
+    default byte getDigit(int index) {
+        return get(index);
+    }
+
+
+    /**
+     * Replaces digit at the specified position without boxing.
+     * Indexes starts from 0.
+     * 
+     * @param index - index of digit
+     * @param digit - new digit value
+     */
+    default void setDigit(int index, byte digit) {
+        set(index, digit);
+    }
+
+
+    /**
+     * Appends digit to the end of the list without boxing.
+     * 
+     * @param digit - digit to append
+     */
+    default void appendDigit(byte digit) {
+        add(digit);
+    }
+
+
+    /**
+     * Performs the given action for each digit of the list,
+     * from the most significant one to the least significant one.
+     * 
+     * @param action - action to perform
+     */
+    default void forEachDigit(IntConsumer action) {
+        for (DigitCursor c = digitCursor(); c.hasNext(); )
+            action.accept(c.nextDigit());
+    }
+
+
+    /**
+     * Returns primitive cursor over digits of the list.
+     * 
+     * @return cursor positioned before the first digit
+     */
+    default DigitCursor digitCursor() {
+        return new DigitCursor() {
+            int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size();
+            }
+
+            @Override
+            public byte nextDigit() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return getDigit(cursor++);
+            }
+
+            @Override
+            public void setDigit(byte digit) {
+                if (cursor == 0) throw new IllegalStateException("setDigit() without nextDigit()");
+                NumberList.this.setDigit(cursor - 1, digit);
+            }
+        };
+    }
+}
@@ -8,12 +8,34 @@
 package ua.kpi.comsys.test2.implementation;
 
 import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import ua.kpi.comsys.test2.DigitCursor;
 import ua.kpi.comsys.test2.NumberList;
+import ua.kpi.comsys.test2.implementation.internal.AsyncFiles;
 import ua.kpi.comsys.test2.implementation.internal.BaseConverter;
+import ua.kpi.comsys.test2.implementation.internal.BigIntegerCodec;
+import ua.kpi.comsys.test2.implementation.internal.PackedNumber;
+import ua.kpi.comsys.test2.implementation.internal.RunLengthDigits;
 import ua.kpi.comsys.test2.implementation.internal.BitwiseAndOperation;
 import ua.kpi.comsys.test2.implementation.internal.CircularDoublyList;
+import ua.kpi.comsys.test2.implementation.internal.ConversionEvent;
+import ua.kpi.comsys.test2.implementation.internal.DecimalAccumulator;
+import ua.kpi.comsys.test2.implementation.internal.DigitSpliterator;
+import ua.kpi.comsys.test2.implementation.internal.FileIoEvent;
+import ua.kpi.comsys.test2.implementation.internal.LazyScaleList;
+import ua.kpi.comsys.test2.implementation.internal.Node;
+import ua.kpi.comsys.test2.implementation.internal.OperationEvent;
 
 /**
  * Реалізація інтерфейсу {@link ua.kpi.comsys.test2.NumberList}, що представляє число
@@ -35,6 +57,7 @@ import ua.kpi.comsys.test2.implementation.internal.CircularDoublyList;
  *     <li>Маніпуляції над списком (додавання, видалення, зсуви, сортування);</li>
  *     <li>Перетворення числа у десяткову та інші системи числення;</li>
  *     <li>Виконання додаткової операції AND;</li>
+ *     <li>Копіювання числа за один прохід, зокрема відкладене до першої зміни;</li>
  * </ul>
  *
  *
@@ -43,23 +66,40 @@ import ua.kpi.comsys.test2.implementation.internal.CircularDoublyList;
  * @recordBookNumber 26
  */
 
-public class NumberListImpl implements NumberList {
+public class NumberListImpl implements NumberList, Cloneable {
 
     private final int base;
     private CircularDoublyList list = new CircularDoublyList();
 
+    /** Десяткове значення числа, дійсне для версії списку {@link #decimalVersion}. */
+    private DecimalAccumulator decimal;
+    private long decimalVersion;
+
 
     /**
      * Перевіряє, чи належить цифра допустимому діапазону
      * для поточної системи числення.
      *
      * @param e цифра, яку потрібно перевірити
-     * @throws IllegalArgumentException якщо цифра < 0 або ≥ base
+     * @throws IllegalArgumentException якщо цифра null, < 0 або ≥ base
      */
     private void checkDigit(Byte e) {
-        if (e == null || e < 0 || e >= base)
+        if (e == null)
+            throw new IllegalArgumentException("Digit null invalid for base " + base);
+        checkDigit(e.byteValue());
+    }
+
+
+    /**
+     * Перевіряє цифру без упаковки у {@link Byte}.
+     *
+     * @param d цифра, яку потрібно перевірити
+     * @throws IllegalArgumentException якщо цифра < 0 або ≥ base
+     */
+    private void checkDigit(byte d) {
+        if (d < 0 || d >= base)
             throw new IllegalArgumentException(
-                "Digit " + e + " invalid for base " + base
+                "Digit " + d + " invalid for base " + base
             );
     }
 
@@ -83,7 +123,21 @@ public class NumberListImpl implements NumberList {
      */
     public void addFirstDigit(byte d) {
         checkDigit(d);
-        list.addFirst(d);
+        owned().addFirst(d);
+    }
+
+
+    /**
+     * Повертає список цифр, який можна змінювати на місці.
+     * Якщо список ще спільний з копією, створеною {@link #copy(boolean)},
+     * це число спершу отримує власну копію за один прохід.
+     *
+     * @return список цифр цього числа
+     */
+    private CircularDoublyList owned() {
+        if (list.isShared())
+            list = list.unshare();
+        return list;
     }
 
 
@@ -105,6 +159,24 @@ public class NumberListImpl implements NumberList {
     }
 
 
+    /**
+     * Створює копію числа в тій самій системі числення.
+     * Вузли копіюються за один прохід без повторної перевірки цифр;
+     * ємність пулу вузлів не копіюється.
+     *
+     * @param other число, яке копіюється
+     */
+    public NumberListImpl(NumberListImpl other) {
+        this(other, false);
+    }
+
+
+    private NumberListImpl(NumberListImpl other, boolean copyOnWrite) {
+        this.base = other.base;
+        this.list = copyOnWrite ? other.list.share() : other.list.copy();
+    }
+
+
     /**
      * Створює число, зчитуючи його зі звичайного текстового файлу,
      * де число представлено в десятковій системі числення.
@@ -117,6 +189,9 @@ public class NumberListImpl implements NumberList {
     public NumberListImpl(File file) {
         this.base = 3;
 
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
+
         try (Scanner sc = new Scanner(file)) {
             if (!sc.hasNextLine()) {
                 return;
@@ -132,6 +207,16 @@ public class NumberListImpl implements NumberList {
 
         } catch (Exception e) {
             this.list = new CircularDoublyList();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "load";
+                event.path = file.getPath();
+                event.base = base;
+                event.digits = list.size();
+                event.bytes = file.length();
+                event.commit();
+            }
         }
     }
 
@@ -167,14 +252,134 @@ public class NumberListImpl implements NumberList {
      * @throws RuntimeException якщо файл не може бути створений або записаний
      */
     public void saveList(File file) {
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
+        String decimal = "";
+
         try (java.io.PrintWriter pw = new java.io.PrintWriter(file)) {
-            pw.print(toDecimalString());
+            decimal = toDecimalString();
+            pw.print(decimal);
         } catch (Exception e) {
             throw new RuntimeException("Cannot save number to file", e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "save";
+                event.path = file.getPath();
+                event.base = base;
+                event.digits = size();
+                event.bytes = decimal.length();
+                event.commit();
+            }
         }
     }
 
 
+    /**
+     * Асинхронно зчитує число з текстового файлу, де воно представлене
+     * в десятковій системі числення, аналогічно до {@link #NumberListImpl(File)}.
+     * <p>
+     * Файл читається через {@link java.nio.channels.AsynchronousFileChannel},
+     * а перетворення виконується у {@link ForkJoinPool#commonPool()}.
+     *
+     * @param path файл із числом у десятковому представленні
+     * @param base система числення результату
+     * @return майбутнє число; порожнє, якщо файл не існує, порожній або містить некоректні дані
+     * @see #loadAsync(Path, int, Executor)
+     */
+    public static CompletableFuture<NumberListImpl> loadAsync(Path path, int base) {
+        return loadAsync(path, base, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * Асинхронно зчитує число з текстового файлу, де воно представлене
+     * в десятковій системі числення, аналогічно до {@link #NumberListImpl(File)}.
+     * <p>
+     * Файл читається через {@link java.nio.channels.AsynchronousFileChannel} без блокування
+     * потоку на час вводу-виводу, а перетворення системи числення виконується на вказаному виконавці.
+     *
+     * @param path     файл із числом у десятковому представленні
+     * @param base     система числення результату
+     * @param executor виконавець для перетворення
+     * @return майбутнє число; порожнє, якщо файл не існує, порожній або містить некоректні дані
+     */
+    public static CompletableFuture<NumberListImpl> loadAsync(Path path, int base, Executor executor) {
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
+
+        return AsyncFiles.readAll(path)
+            .thenApplyAsync(bytes -> {
+                NumberListImpl result = new NumberListImpl(base);
+                String text = new String(bytes, StandardCharsets.US_ASCII);
+                int end = text.indexOf('\n');
+                String line = (end < 0 ? text : text.substring(0, end)).trim();
+                if (line.matches("\\d+"))
+                    result.list = BaseConverter.fromDecimal(line, base).list;
+
+                event.end();
+                if (event.shouldCommit()) {
+                    event.operation = "loadAsync";
+                    event.path = path.toString();
+                    event.base = base;
+                    event.digits = result.size();
+                    event.bytes = bytes.length;
+                    event.commit();
+                }
+                return result;
+            }, executor)
+            .exceptionally(e -> new NumberListImpl(base));
+    }
+
+
+    /**
+     * Асинхронно зберігає число у вказаний файл у вигляді десяткового значення.
+     * Перетворення виконується у {@link ForkJoinPool#commonPool()}.
+     *
+     * @param path файл для збереження
+     * @return майбутнє завершення запису
+     * @see #saveAsync(Path, Executor)
+     */
+    public CompletableFuture<Void> saveAsync(Path path) {
+        return saveAsync(path, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * Асинхронно зберігає число у вказаний файл у вигляді десяткового значення.
+     * <p>
+     * Цифри копіюються під час виклику, тому число можна змінювати одразу після нього.
+     * Перетворення у десяткову систему виконується на вказаному виконавці,
+     * а запис — через {@link java.nio.channels.AsynchronousFileChannel}.
+     *
+     * @param path     файл для збереження
+     * @param executor виконавець для перетворення
+     * @return майбутнє завершення запису; завершується з {@link java.io.IOException},
+     *         якщо файл не може бути створений або записаний
+     */
+    public CompletableFuture<Void> saveAsync(Path path, Executor executor) {
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
+        byte[] digits = toByteArray();
+        int numberBase = base;
+
+        return CompletableFuture
+            .supplyAsync(() -> new BigIntegerCodec(numberBase).toBigInteger(digits).toString()
+                .getBytes(StandardCharsets.US_ASCII), executor)
+            .thenCompose(bytes -> AsyncFiles.writeAll(path, bytes).thenRun(() -> {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.operation = "saveAsync";
+                    event.path = path.toString();
+                    event.base = numberBase;
+                    event.digits = digits.length;
+                    event.bytes = bytes.length;
+                    event.commit();
+                }
+            }));
+    }
+
+
     /**
      * Повертає номер залікової книжки студента.
      *
@@ -193,8 +398,41 @@ public class NumberListImpl implements NumberList {
      * @return список у новій системі числення
      */
     public NumberListImpl changeScale() {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+
         int newBase = 8;
-        return BaseConverter.convert(this, newBase);
+        NumberListImpl result = BaseConverter.convert(this, newBase);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "changeScale";
+            event.sourceBase = base;
+            event.targetBase = newBase;
+            event.sourceDigits = size();
+            event.targetDigits = result.size();
+            event.commit();
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Повертає представлення цього ж числа у додатковій системі числення (base-8),
+     * яке може обчислюватися ліниво.
+     * <p>
+     * Ліниве представлення не виконує перетворення, доки не потрібні
+     * старші цифри: {@code size()} та молодші цифри обчислюються
+     * без повного перетворення. Оригінальний список не змінюється.
+     *
+     * @param lazy true — повернути ліниве представлення, false — результат {@link #changeScale()}
+     * @return число у новій системі числення
+     */
+    public NumberList changeScale(boolean lazy) {
+        if (!lazy)
+            return changeScale();
+        return new LazyScaleList(this, 8);
     }
 
 
@@ -207,17 +445,51 @@ public class NumberListImpl implements NumberList {
      * @return результат операції як новий NumberListImpl
      */
     public NumberListImpl additionalOperation(NumberList arg) {
-        return BitwiseAndOperation.apply(this, arg);
+        OperationEvent event = new OperationEvent();
+        event.begin();
+
+        NumberListImpl result = BitwiseAndOperation.apply(this, arg);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "AND";
+            event.base = base;
+            event.leftDigits = size();
+            event.rightDigits = arg.size();
+            event.resultDigits = result.size();
+            event.commit();
+        }
+
+        return result;
     }
 
 
     /**
      * Повертає десяткове представлення числа.
+     * <p>
+     * Значення обчислюється повністю лише після змін, відмінних від
+     * дописування цифр у кінець; дописування ({@code add(Byte)},
+     * {@link #appendDigit(byte)}, {@code addAll} у кінець) оновлює його
+     * як {@code N * base + d}, тому залишається лише форматування.
      *
      * @return рядок з десятковим значенням
      */
     public String toDecimalString() {
-        return BaseConverter.toDecimal(this);
+        if (decimal == null || decimalVersion != list.version()) {
+            decimal = BaseConverter.toDecimalAccumulator(this);
+            decimalVersion = list.version();
+        }
+        return decimal.toString();
+    }
+
+
+    /**
+     * Перевіряє, чи збережене десяткове значення відповідає поточному стану списку.
+     * Якщо так, дописування цифр у кінець оновлює його інкрементально
+     * замість повного перерахунку при наступному {@link #toDecimalString()}.
+     */
+    private boolean decimalTracked() {
+        return decimal != null && decimalVersion == list.version();
     }
 
 
@@ -229,9 +501,8 @@ public class NumberListImpl implements NumberList {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < size(); i++)
-            sb.append(get(i));
+        StringBuilder sb = new StringBuilder(size());
+        list.forEach(sb::append);
         return sb.toString();
     }
 
@@ -246,8 +517,10 @@ public class NumberListImpl implements NumberList {
     public boolean equals(Object o) {
         if (!(o instanceof NumberList other)) return false;
         if (size() != other.size()) return false;
-        for (int i = 0; i < size(); i++)
-            if (!Objects.equals(get(i), other.get(i)))
+        DigitCursor mine = digitCursor();
+        DigitCursor theirs = other.digitCursor();
+        while (mine.hasNext())
+            if (mine.nextDigit() != theirs.nextDigit())
                 return false;
         return true;
     }
@@ -264,6 +537,17 @@ public class NumberListImpl implements NumberList {
     }
 
 
+    /**
+     * Повертає кількість переходів між вузлами, зроблених пошуком цифр за індексом.
+     * Використовується тестами складності як детермінований лічильник роботи.
+     *
+     * @return кількість переходів
+     */
+    long indexSteps() {
+        return list.indexSteps();
+    }
+
+
     /**
      * Перевіряє, чи є список порожнім.
      *
@@ -277,6 +561,7 @@ public class NumberListImpl implements NumberList {
 
     /**
      * Перевіряє, чи містить список певну цифру.
+     * Виконується за O(1) завдяки лічильнику входжень кожної цифри.
      *
      * @param o об'єкт, що перевіряється
      * @return true, якщо о — Byte і присутній у списку
@@ -284,54 +569,337 @@ public class NumberListImpl implements NumberList {
     @Override
     public boolean contains(Object o) {
         if (!(o instanceof Byte d)) return false;
-        for (int i = 0; i < size(); i++)
-            if (get(i).equals(d)) return true;
-        return false;
+        return digitIndex().count(d) > 0;
+    }
+
+
+    /**
+     * Повертає список з увімкненим індексом входжень цифр.
+     * Індекс вмикається при першому запиті і далі підтримується всіма змінами списку.
+     */
+    private CircularDoublyList digitIndex() {
+        list.enableDigitIndex(base);
+        return list;
     }
 
 
     /**
      * Повертає ітератор для обходу цифр числа зліва направо.
+     * Обхід виконується по вузлах списку, тому повний обхід лінійний.
      *
      * @return ітератор по цифрах
      */
     @Override
     public Iterator<Byte> iterator() {
+        DigitCursor cursor = digitCursor();
         return new Iterator<>() {
-            int index = 0;
-
             @Override
             public boolean hasNext() {
-                return index < size();
+                return cursor.hasNext();
             }
 
             @Override
             public Byte next() {
-                if (!hasNext()) throw new NoSuchElementException();
-                return get(index++);
+                return cursor.nextDigit();
+            }
+        };
+    }
+
+
+    /**
+     * Повертає примітивний курсор по цифрах числа зліва направо.
+     * Курсор переходить по вузлах списку і не упаковує цифри у {@link Byte}.
+     *
+     * @return курсор перед першою цифрою
+     * @throws ConcurrentModificationException якщо список структурно змінено під час обходу
+     */
+    @Override
+    public DigitCursor digitCursor() {
+        return new DigitCursor() {
+            CircularDoublyList source = list;
+            Node next = list.getHead();
+            Node lastReturned;
+            int remaining = list.size();
+            final int expectedModCount = list.modCount();
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public byte nextDigit() {
+                if (list.modCount() != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (remaining == 0) throw new NoSuchElementException();
+                if (source != list) rebind();
+
+                lastReturned = next;
+                next = list.next(next);
+                remaining--;
+                return lastReturned.value;
+            }
+
+            @Override
+            public void setDigit(byte digit) {
+                if (lastReturned == null)
+                    throw new IllegalStateException("setDigit() without nextDigit()");
+                if (list.modCount() != expectedModCount)
+                    throw new ConcurrentModificationException();
+
+                checkDigit(digit);
+                owned();
+                if (source != list) rebind();
+                list.set(lastReturned, digit);
+            }
+
+            /** Переходить на вузли власної копії списку, яку число отримало після запису. */
+            private void rebind() {
+                source = list;
+                int returned = list.size() - remaining;
+                lastReturned = returned == 0 ? null : list.nodeAt(returned - 1);
+                next = lastReturned == null ? list.getHead() : list.next(lastReturned);
             }
         };
     }
 
 
     /**
-     * Перетворює список у масив об'єктів.
+     * Повертає spliterator по цифрах числа, що обходить вузли списку
+     * та розділяється навпіл для паралельних потоків.
+     *
+     * @return spliterator з характеристиками ORDERED, SIZED, SUBSIZED, NONNULL
+     */
+    @Override
+    public Spliterator<Byte> spliterator() {
+        return new DigitSpliterator(list).boxed();
+    }
+
+
+    /**
+     * Повертає потік цифр числа зліва направо без упаковки.
+     * Для паралельної обробки достатньо викликати {@code parallel()}.
+     *
+     * @return потік цифр
+     */
+    public IntStream digitStream() {
+        return StreamSupport.intStream(new DigitSpliterator(list), false);
+    }
+
+
+    /**
+     * Виконує дію для кожної цифри числа зліва направо без упаковки.
+     *
+     * @param action дія над цифрою
+     */
+    @Override
+    public void forEachDigit(IntConsumer action) {
+        Objects.requireNonNull(action);
+        list.forEach(action);
+    }
+
+
+    /**
+     * Перетворює список у новий масив об'єктів за один прохід курсором.
+     * Тип масиву — {@code Object[]}, як того вимагає {@link Collection#toArray()}.
      *
      * @return масив елементів списку
      */
     @Override
     public Object[] toArray() {
-        Object[] arr = new Object[size()];
-        for (int i = 0; i < size(); i++)
-            arr[i] = get(i);
-        return arr;
+        Object[] result = new Object[size()];
+        DigitCursor cursor = digitCursor();
+        for (int i = 0; cursor.hasNext(); i++)
+            result[i] = cursor.nextDigit();
+        return result;
     }
 
 
+    /**
+     * Перетворює список у масив заданого типу за один прохід.
+     * <p>
+     * Якщо масив {@code a} достатньо великий, цифри записуються у нього,
+     * а елемент одразу після останньої цифри (якщо є) стає {@code null}.
+     * Інакше створюється новий масив того ж типу.
+     *
+     * @param a масив для результату
+     * @return масив елементів списку
+     * @throws ArrayStoreException якщо тип масиву не є супертипом {@link Byte}
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T[] toArray(T[] a) {
-        // TODO Auto-generated method stub
-        return null;
+        byte[] digits = list.toByteArray();
+        int size = digits.length;
+
+        if (a.length < size)
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+
+        Object[] result = a;
+        for (int i = 0; i < size; i++)
+            result[i] = digits[i];
+
+        if (a.length > size)
+            a[size] = null;
+        return a;
+    }
+
+
+    /**
+     * Повертає цифри числа у вигляді масиву байтів без упаковки у {@link Byte}.
+     *
+     * @return новий масив цифр від старшої до молодшої
+     */
+    public byte[] toByteArray() {
+        return list.toByteArray();
+    }
+
+
+    /**
+     * Повертає значення числа у вигляді {@link BigInteger}.
+     * <p>
+     * Цифри пакуються групами у слова за основою {@code base^k}
+     * і об'єднуються субквадратичними множеннями {@link BigInteger}.
+     *
+     * @return значення числа; {@link BigInteger#ZERO} для порожнього списку
+     */
+    public BigInteger toBigInteger() {
+        return new BigIntegerCodec(base).toBigInteger(toByteArray());
+    }
+
+
+    /**
+     * Створює число у вказаній системі числення за значенням {@link BigInteger}.
+     *
+     * @param value невідʼємне значення
+     * @param base основа системи числення результату
+     * @return нове число без провідних нулів; порожній список для нуля
+     * @throws IllegalArgumentException якщо значення відʼємне або основа некоректна
+     */
+    public static NumberListImpl fromBigInteger(BigInteger value, int base) {
+        NumberListImpl result = new NumberListImpl(base);
+        result.list = CircularDoublyList.of(new BigIntegerCodec(base).toDigits(value));
+        return result;
+    }
+
+
+    /**
+     * Пакує цифри числа у «широкі» слова за основою {@code base^k}.
+     *
+     * @return упаковане представлення тієї ж довжини
+     */
+    public PackedNumber toPacked() {
+        return PackedNumber.pack(toByteArray(), base);
+    }
+
+
+    /**
+     * Створює число з упакованого представлення.
+     *
+     * @param packed упаковане число
+     * @return нове число з тими самими цифрами
+     */
+    public static NumberListImpl fromPacked(PackedNumber packed) {
+        NumberListImpl result = new NumberListImpl(packed.getBase());
+        result.list = CircularDoublyList.of(packed.toByteArray());
+        return result;
+    }
+
+
+    /**
+     * Стискає цифри числа у серії однакових цифр за один прохід.
+     *
+     * @return стиснене представлення
+     */
+    public RunLengthDigits toRunLength() {
+        RunLengthDigits runs = new RunLengthDigits(base);
+        list.forEach(d -> runs.append((byte) d, 1));
+        return runs;
+    }
+
+
+    /**
+     * Створює число зі стисненого представлення.
+     *
+     * @param runs серії цифр
+     * @return нове число з тими самими цифрами
+     */
+    public static NumberListImpl fromRunLength(RunLengthDigits runs) {
+        NumberListImpl result = new NumberListImpl(runs.getBase());
+        for (int r = 0; r < runs.runCount(); r++)
+            for (int i = runs.runLength(r); i > 0; i--)
+                result.list.add(runs.runDigit(r));
+        return result;
+    }
+
+
+    /**
+     * Створює число з масиву цифр.
+     * <p>
+     * Усі цифри перевіряються одним проходом по масиву;
+     * масив копіюється, тому подальші зміни масиву не впливають на число.
+     *
+     * @param digits цифри від старшої до молодшої
+     * @param base основа системи числення
+     * @return нове число
+     * @throws IllegalArgumentException якщо хоча б одна цифра не відповідає основі системи
+     */
+    public static NumberListImpl fromDigits(byte[] digits, int base) {
+        int max = 0;
+        for (byte d : digits)
+            max = Math.max(max, d & 0xFF);
+
+        NumberListImpl result = new NumberListImpl(base);
+        if (max >= base) {
+            for (byte d : digits)
+                result.checkDigit(d);
+        }
+
+        result.list = CircularDoublyList.of(digits);
+        return result;
+    }
+
+
+    /**
+     * Створює копію числа за один прохід по вузлах, без повторної перевірки цифр.
+     *
+     * @return нове число з тими самими цифрами та основою
+     */
+    public NumberListImpl copy() {
+        return new NumberListImpl(this);
+    }
+
+
+    /**
+     * Створює копію числа. Копія з відкладеним копіюванням спершу спільно
+     * використовує вузли з цим числом; власну копію вузлів отримує те з чисел,
+     * що першим змінюється, а останнє змінюється на місці. Тому копія, яка лише
+     * читається, коштує O(1).
+     *
+     * @param copyOnWrite чи відкласти копіювання до першої зміни
+     * @return нове число з тими самими цифрами та основою
+     */
+    public NumberListImpl copy(boolean copyOnWrite) {
+        return new NumberListImpl(this, copyOnWrite);
+    }
+
+
+    /**
+     * Повертає копію числа з тими самими цифрами, основою та класом.
+     * Вузли копіюються за один прохід, як у {@link #copy()}.
+     *
+     * @return нове число з тими самими цифрами та основою
+     */
+    @Override
+    public NumberListImpl clone() {
+        try {
+            NumberListImpl clone = (NumberListImpl) super.clone();
+            clone.list = list.copy();
+            clone.decimal = null;
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
     }
 
 
@@ -345,11 +913,30 @@ public class NumberListImpl implements NumberList {
     @Override
     public boolean add(Byte e) {
         checkDigit(e);
-        list.add(e);
+        appendDigit(e);
         return true;
     }
 
 
+    /**
+     * Додає цифру в кінець списку без упаковки.
+     *
+     * @param digit цифра
+     * @throws IllegalArgumentException якщо цифра не відповідає основі системи
+     */
+    @Override
+    public void appendDigit(byte digit) {
+        checkDigit(digit);
+        boolean tracked = decimalTracked();
+        owned().add(digit);
+
+        if (tracked) {
+            decimal.append(digit);
+            decimalVersion = list.version();
+        }
+    }
+
+
     /**
      * Видаляє перше входження заданої цифри.
      *
@@ -385,72 +972,110 @@ public class NumberListImpl implements NumberList {
      *
      * @param c колекція цифр
      * @return true, якщо список змінено
+     * @throws IllegalArgumentException якщо хоча б одна цифра не відповідає основі системи
      */
     @Override
     public boolean addAll(Collection<? extends Byte> c) {
-        boolean modified = false;
-        for (Byte b : c) {
-            add(b);
-            modified = true;
-        }
-        return modified;
+        return addAll(size(), c);
     }
 
     /**
      * Вставляє всі елементи колекції, починаючи з певної позиції.
+     * <p>
+     * Нові цифри спочатку збираються в окремий ланцюжок вузлів,
+     * який потім вставляється у список за O(1), тому вартість
+     * лінійна від кількості вставлених цифр. Якщо хоча б одна цифра
+     * некоректна, список не змінюється.
      *
      * @param index позиція вставки
      * @param c колекція цифр
      * @return true, якщо список змінено
+     * @throws IndexOutOfBoundsException якщо індекс некоректний
+     * @throws IllegalArgumentException якщо хоча б одна цифра не відповідає основі системи
      */
     @Override
     public boolean addAll(int index, Collection<? extends Byte> c) {
-        int pos = index;
-        boolean modified = false;
+        if (index < 0 || index > size())
+            throw new IndexOutOfBoundsException();
+
+        CircularDoublyList chain = chainOf(c);
+        boolean tracked = index == size() && decimalTracked();
+        if (tracked)
+            chain.forEach(decimal::append);
+
+        owned().addAll(index, chain);
+        if (tracked)
+            decimalVersion = list.version();
+        return !c.isEmpty();
+    }
+
+    /**
+     * Будує окремий ланцюжок вузлів з цифр колекції.
+     * Цифри іншого числа з тією самою основою копіюються без повторної перевірки.
+     */
+    private CircularDoublyList chainOf(Collection<? extends Byte> c) {
+        if (c instanceof NumberListImpl other && other.base == base)
+            return other.list.copy();
+
+        CircularDoublyList chain = new CircularDoublyList();
         for (Byte b : c) {
-            add(pos++, b);
-            modified = true;
+            checkDigit(b);
+            chain.add(b);
         }
-        return modified;
+        return chain;
     }
 
 
     /**
      * Видаляє всі входження елементів, які містяться у вказаній колекції.
+     * Виконується за один прохід по списку.
      *
      * @param c колекція елементів для видалення
      * @return true, якщо список змінено
      */
     @Override
     public boolean removeAll(Collection<?> c) {
-        boolean modified = false;
-        for (Object o : c) {
-            while (remove(o))
-                modified = true;
-        }
-        return modified;
+        boolean[] remove = digitTable(c);
+        return owned().removeIf(d -> remove[d]) > 0;
     }
 
 
     /**
      * Залишає тільки ті елементи, що містяться у вказаній колекції.
+     * Виконується за один прохід по списку.
      *
      * @param c колекція допустимих елементів
      * @return true, якщо список змінено
      */
     @Override
     public boolean retainAll(Collection<?> c) {
-        boolean modified = false;
-        int i = 0;
-        while (i < size()) {
-            if (!c.contains(get(i))) {
-                remove(i);
-                modified = true;
-            } else {
-                i++;
-            }
-        }
-        return modified;
+        boolean[] retain = digitTable(c);
+        return owned().removeIf(d -> !retain[d]) > 0;
+    }
+
+
+    /**
+     * Видаляє всі цифри, що задовольняють умову, за один прохід по списку.
+     *
+     * @param filter умова видалення
+     * @return true, якщо список змінено
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Byte> filter) {
+        Objects.requireNonNull(filter);
+        return owned().removeIf(d -> filter.test((byte) d)) > 0;
+    }
+
+    /**
+     * Будує таблицю належності цифр колекції: {@code table[d]} дорівнює
+     * {@code c.contains(d)} для кожної цифри поточної основи.
+     */
+    private boolean[] digitTable(Collection<?> c) {
+        Objects.requireNonNull(c);
+        boolean[] table = new boolean[base];
+        for (int d = 0; d < base; d++)
+            table[d] = c.contains((byte) d);
+        return table;
     }
 
 
@@ -459,7 +1084,7 @@ public class NumberListImpl implements NumberList {
      */
     @Override
     public void clear() {
-        list = new CircularDoublyList();
+        owned().clear();
     }
 
 
@@ -472,6 +1097,19 @@ public class NumberListImpl implements NumberList {
      */
     @Override
     public Byte get(int index) {
+        return getDigit(index);
+    }
+
+
+    /**
+     * Повертає цифру за індексом без упаковки.
+     *
+     * @param index індекс
+     * @return цифра
+     * @throws IndexOutOfBoundsException якщо індекс некоректний
+     */
+    @Override
+    public byte getDigit(int index) {
         return list.get(index);
     }
 
@@ -487,9 +1125,22 @@ public class NumberListImpl implements NumberList {
     @Override
     public Byte set(int index, Byte element) {
         checkDigit(element);
-        byte old = get(index);
-        list.set(index, element);
-        return old;
+        return owned().set(index, element);
+    }
+
+
+    /**
+     * Замінює цифру за індексом без упаковки.
+     *
+     * @param index позиція
+     * @param digit нова цифра
+     * @throws IllegalArgumentException якщо цифра недопустима
+     * @throws IndexOutOfBoundsException якщо індекс некоректний
+     */
+    @Override
+    public void setDigit(int index, byte digit) {
+        checkDigit(digit);
+        owned().set(index, digit);
     }
 
 
@@ -502,7 +1153,7 @@ public class NumberListImpl implements NumberList {
     @Override
     public void add(int index, Byte element) {
         checkDigit(element);
-        list.add(index, element);
+        owned().add(index, element);
     }
 
     /**
@@ -513,12 +1164,14 @@ public class NumberListImpl implements NumberList {
      */
     @Override
     public Byte remove(int index) {
-        return list.remove(index);
+        return owned().remove(index);
     }
 
 
     /**
      * Повертає індекс першої появи цифри.
+     * Перші входження всіх цифр знаходяться одним проходом
+     * і запам'ятовуються до наступної зміни списку.
      *
      * @param o цифра
      * @return індекс або -1
@@ -526,13 +1179,13 @@ public class NumberListImpl implements NumberList {
     @Override
     public int indexOf(Object o) {
         if (!(o instanceof Byte d)) return -1;
-        for (int i = 0; i < size(); i++)
-            if (get(i).equals(d)) return i;
-        return -1;
+        return digitIndex().firstIndexOf(d);
     }
 
     /**
      * Повертає індекс останньої появи цифри.
+     * Останні входження всіх цифр знаходяться одним проходом з кінця
+     * і запам'ятовуються до наступної зміни списку.
      *
      * @param o цифра
      * @return індекс або -1
@@ -540,9 +1193,7 @@ public class NumberListImpl implements NumberList {
     @Override
     public int lastIndexOf(Object o) {
         if (!(o instanceof Byte d)) return -1;
-        for (int i = size()-1; i >= 0; i--)
-            if (get(i).equals(d)) return i;
-        return -1;
+        return digitIndex().lastIndexOf(d);
     }
 
     /**
@@ -640,22 +1291,23 @@ public class NumberListImpl implements NumberList {
 
 
     /**
-     * Створює новий NumberListImpl, що містить підпослідовність цифр.
+     * Повертає представлення частини списку без копіювання цифр.
+     * <p>
+     * Читання та запис через представлення відображаються на цьому списку,
+     * а цифри перевіряються за основою цього списку. Структурна зміна
+     * списку не через представлення робить представлення недійсним.
      *
      * @param fromIndex початок включно
      * @param toIndex кінець не включно
-     * @return новий список
+     * @return представлення діапазону [fromIndex, toIndex)
+     * @throws IndexOutOfBoundsException якщо межі некоректні
      */
     @Override
     public List<Byte> subList(int fromIndex, int toIndex) {
         if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex)
             throw new IndexOutOfBoundsException();
 
-        NumberListImpl sub = new NumberListImpl();
-        for (int i = fromIndex; i < toIndex; i++)
-            sub.add(get(i));
-
-        return sub;
+        return new SubList(null, fromIndex, toIndex - fromIndex);
     }
 
     /**
@@ -698,21 +1350,239 @@ public class NumberListImpl implements NumberList {
 
     /**
      * Виконує циклічний зсув вліво: перший елемент переміщується в кінець.
+     * Виконується за O(1) зміною голови кільцевого списку.
      */
     @Override
     public void shiftLeft() {
-        if (size() <= 1) return;
-        byte first = remove(0);
-        add(first);
+        owned().rotateLeft();
     }
 
     /**
      * Виконує циклічний зсув вправо: останній елемент переміщується на початок.
+     * Виконується за O(1) зміною голови кільцевого списку.
      */
     @Override
     public void shiftRight() {
-        if (size() <= 1) return;
-        byte last = remove(size()-1);
-        list.add(0, last);
+        owned().rotateRight();
+    }
+
+    /**
+     * Дописує в кінець цього числа всі цифри числа {@code other}, переносячи його вузли
+     * без копіювання. Після виклику {@code other} порожнє.
+     * <p>
+     * Виконується за O(1): перепризначаються лише чотири посилання кільцевих списків.
+     *
+     * @param other число тієї ж системи числення
+     * @throws IllegalArgumentException якщо {@code other} є цим самим числом
+     *         або має іншу основу системи числення
+     */
+    public void concat(NumberListImpl other) {
+        if (other == this)
+            throw new IllegalArgumentException("Cannot concatenate number with itself");
+        if (other.base != base)
+            throw new IllegalArgumentException("Different bases: " + base + " and " + other.base);
+
+        CircularDoublyList segment = other.owned();
+        owned().addAll(list.size(), segment);
+    }
+
+
+    /**
+     * Відокремлює цифри, починаючи з позиції {@code index}, у нове число
+     * тієї ж системи числення; у цьому числі залишаються цифри {@code [0, index)}.
+     * <p>
+     * Виконується за O(1) після пошуку вузла розриву.
+     *
+     * @param index позиція першої цифри нового числа (0..size)
+     * @return нове число з відокремленими цифрами
+     * @throws IndexOutOfBoundsException якщо індекс некоректний
+     */
+    public NumberListImpl splitAt(int index) {
+        NumberListImpl tail = new NumberListImpl(base);
+        tail.list = owned().splitAt(index);
+        return tail;
+    }
+
+
+    /**
+     * Змінює порядок цифр на протилежний.
+     * Виконується за O(1) зміною напрямку обходу кільцевого списку.
+     */
+    @Override
+    public void reverse() {
+        owned().reverse();
+    }
+
+
+    /**
+     * Задає, скільки видалених вузлів список зберігає для наступних вставок.
+     * <p>
+     * Для навантажень, що постійно видаляють і додають цифри, пул вузлів
+     * прибирає виділення пам'яті на кожну вставку. За замовчуванням пул вимкнений.
+     *
+     * @param capacity максимальна кількість збережених вузлів, 0 — вимкнути пул
+     * @throws IllegalArgumentException якщо ємність відʼємна
+     */
+    public void setNodePoolCapacity(int capacity) {
+        owned().setNodePoolCapacity(capacity);
+    }
+
+
+    /**
+     * Представлення діапазону цифр списку, що повертається {@link #subList(int, int)}.
+     * <p>
+     * Запам'ятовує вузол початку діапазону, тому доступ до цифри з індексом {@code i}
+     * коштує не більше {@code i} переходів. Вкладені представлення посилаються
+     * на той самий список і оновлюють розміри батьківських представлень.
+     */
+    private class SubList extends AbstractList<Byte> {
+
+        private final SubList parent;
+        private final int offset;
+        private int size;
+        private int expectedModCount;
+
+        /** Вузол з індексом {@code offset}; {@code null}, доки не знайдений. */
+        private Node start;
+
+        /** Список, якому належить {@link #start}. */
+        private CircularDoublyList source = list;
+
+        SubList(SubList parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = list.modCount();
+        }
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public Byte get(int index) {
+            Objects.checkIndex(index, size);
+            checkForComodification();
+            return node(index).value;
+        }
+
+        @Override
+        public Byte set(int index, Byte element) {
+            Objects.checkIndex(index, size);
+            checkDigit(element);
+            owned();
+            checkForComodification();
+
+            return list.set(node(index), element);
+        }
+
+        @Override
+        public void add(int index, Byte element) {
+            Objects.checkIndex(index, size + 1);
+            checkDigit(element);
+            checkForComodification();
+
+            owned().add(offset + index, element);
+            updateSizeAndModCount(1);
+        }
+
+        @Override
+        public Byte remove(int index) {
+            Objects.checkIndex(index, size);
+            checkForComodification();
+
+            byte old = owned().remove(offset + index);
+            updateSizeAndModCount(-1);
+            return old;
+        }
+
+        @Override
+        public Iterator<Byte> iterator() {
+            checkForComodification();
+
+            return new Iterator<>() {
+                CircularDoublyList source = list;
+                Node next = size == 0 ? null : node(0);
+                int index = 0;
+                int lastReturned = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public Byte next() {
+                    checkForComodification();
+                    if (!hasNext()) throw new NoSuchElementException();
+                    if (source != list) {
+                        source = list;
+                        next = node(index);
+                    }
+
+                    byte val = next.value;
+                    next = list.next(next);
+                    lastReturned = index++;
+                    return val;
+                }
+
+                @Override
+                public void remove() {
+                    if (lastReturned == -1)
+                        throw new IllegalStateException("remove() without next()");
+
+                    SubList.this.remove(lastReturned);
+                    index--;
+                    lastReturned = -1;
+                }
+            };
+        }
+
+        @Override
+        public List<Byte> subList(int fromIndex, int toIndex) {
+            Objects.checkFromToIndex(fromIndex, toIndex, size);
+            checkForComodification();
+
+            SubList sub = new SubList(this, offset + fromIndex, toIndex - fromIndex);
+            if (fromIndex == 0)
+                sub.start = start;
+            return sub;
+        }
+
+        /**
+         * Повертає вузол з індексом {@code index} у межах представлення,
+         * обираючи коротший шлях: від початку діапазону або від голови списку.
+         */
+        private Node node(int index) {
+            if (start == null)
+                start = list.nodeAt(offset);
+
+            int fromHead = Math.min(offset + index, list.size() - offset - index - 1);
+            if (fromHead < index)
+                return list.nodeAt(offset + index);
+
+            Node curr = start;
+            for (int i = 0; i < index; i++) curr = list.next(curr);
+            return curr;
+        }
+
+        private void updateSizeAndModCount(int delta) {
+            for (SubList s = this; s != null; s = s.parent) {
+                s.size += delta;
+                s.expectedModCount = list.modCount();
+                s.start = null;
+            }
+        }
+
+        private void checkForComodification() {
+            if (list.modCount() != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (source != list) {
+                source = list;
+                start = null;
+            }
+        }
     }
 }
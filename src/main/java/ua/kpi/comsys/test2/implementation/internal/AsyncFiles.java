@@ -0,0 +1,125 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокуюче читання та запис цілих файлів через {@link AsynchronousFileChannel}.
+ * <p>
+ * Жоден потік не очікує на завершення вводу-виводу: кожна наступна порція
+ * читається або записується з обробника завершення попередньої.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class AsyncFiles {
+
+    private AsyncFiles() {
+    }
+
+    /**
+     * Зчитує весь вміст файлу.
+     *
+     * @param path шлях до файлу
+     * @return майбутній вміст файлу; завершується з {@link IOException}, якщо файл не може бути прочитаний
+     */
+    public static CompletableFuture<byte[]> readAll(Path path) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8)
+                throw new IOException("File is too large: " + path);
+            read(channel, ByteBuffer.allocate((int) size), result);
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result.whenComplete((bytes, failure) -> close(channel));
+    }
+
+    /**
+     * Записує дані у файл, створюючи або перезаписуючи його.
+     *
+     * @param path шлях до файлу
+     * @param data дані для запису
+     * @return майбутнє завершення запису; завершується з {@link IOException}, якщо файл не може бути записаний
+     */
+    public static CompletableFuture<Void> writeAll(Path path, byte[] data) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        write(channel, ByteBuffer.wrap(data), result);
+        return result.whenComplete((ignored, failure) -> close(channel));
+    }
+
+    private static void read(AsynchronousFileChannel channel, ByteBuffer buffer, CompletableFuture<byte[]> result) {
+        if (!buffer.hasRemaining()) {
+            result.complete(buffer.array());
+            return;
+        }
+
+        channel.read(buffer, buffer.position(), null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer count, Void attachment) {
+                if (count < 0)
+                    result.complete(Arrays.copyOf(buffer.array(), buffer.position()));
+                else
+                    read(channel, buffer, result);
+            }
+
+            @Override
+            public void failed(Throwable failure, Void attachment) {
+                result.completeExceptionally(failure);
+            }
+        });
+    }
+
+    private static void write(AsynchronousFileChannel channel, ByteBuffer buffer, CompletableFuture<Void> result) {
+        if (!buffer.hasRemaining()) {
+            result.complete(null);
+            return;
+        }
+
+        channel.write(buffer, buffer.position(), null, new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer count, Void attachment) {
+                write(channel, buffer, result);
+            }
+
+            @Override
+            public void failed(Throwable failure, Void attachment) {
+                result.completeExceptionally(failure);
+            }
+        });
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // вміст уже прочитаний або записаний
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package ua.kpi.comsys.test2.implementation.internal;
 
+import java.math.BigInteger;
+import java.util.function.Supplier;
+
+import ua.kpi.comsys.test2.DigitCursor;
 import ua.kpi.comsys.test2.implementation.NumberListImpl;
 
 
@@ -12,6 +16,8 @@ import ua.kpi.comsys.test2.implementation.NumberListImpl;
  *     <li>Перетворення десяткового числа у список цифр заданої основи;</li>
  *     <li>Загальну конвертацію між будь-якими системами числення.</li>
  * </ul>
+ * Результати {@link #convert(NumberListImpl, int)} та {@link #fromDecimal(String, int)}
+ * можуть зберігатися у спільному кеші, який вмикається {@link #enableCache(long)}.
  *
  * Усі методи є статичними і не потребують створення об’єкта класу.
  * Клас використовується всередині {@link NumberListImpl}.
@@ -23,20 +29,102 @@ import ua.kpi.comsys.test2.implementation.NumberListImpl;
  */
 public class BaseConverter {
 
+    /** Спільний кеш перетворень; {@code null}, якщо кеш вимкнений. */
+    private static volatile ConversionCache cache;
+
+    /** Середня довжина серії однакових цифр, з якої значення обчислюється по серіях. */
+    private static final int SPARSE_RUN_LENGTH = 16;
+
+    /** Мінімальна кількість цифр, з якої {@link #convert} працює через {@link BigInteger}. */
+    private static volatile int bigIntegerThreshold = 256;
+
+
+    /**
+     * Задає, з якої кількості цифр вихідного числа {@link #convert(NumberListImpl, int)}
+     * виконує перетворення через {@link BigInteger}
+     * ({@link NumberListImpl#toBigInteger()} / {@link NumberListImpl#fromBigInteger(BigInteger, int)})
+     * замість десяткового проміжного представлення.
+     *
+     * @param digits поріг у цифрах; {@link Integer#MAX_VALUE} вимикає цей шлях
+     */
+    public static void setBigIntegerThreshold(int digits) {
+        bigIntegerThreshold = digits;
+    }
+
+
+    /**
+     * Вмикає спільний кеш результатів перетворення (попередній вміст скидається).
+     * <p>
+     * Повторне перетворення числа з тими самими цифрами та основами
+     * повертає копію збереженого результату замість обчислення.
+     *
+     * @param maxDigits максимальна сумарна кількість цифр у записах кешу
+     * @throws IllegalArgumentException якщо обмеження не додатне
+     */
+    public static void enableCache(long maxDigits) {
+        cache = new ConversionCache(maxDigits);
+    }
+
+
+    /**
+     * Вимикає спільний кеш перетворень та звільняє його вміст.
+     */
+    public static void disableCache() {
+        cache = null;
+    }
+
+
+    /**
+     * Повертає лічильники спільного кешу перетворень.
+     *
+     * @return знімок лічильників або {@code null}, якщо кеш вимкнений
+     */
+    public static ConversionCache.Stats cacheStats() {
+        ConversionCache c = cache;
+        return c == null ? null : c.stats();
+    }
+
+
     /**
      * Перетворює число, представлене у вигляді списку цифр
      * у його десяткове значення.
+     * <p>
+     * Значення накопичується кінцівками за основою 10<sup>9</sup>
+     * (див. {@link DecimalAccumulator}), тому на кожну цифру припадає
+     * робота над ~n/9 кінцівками замість посимвольної арифметики над рядком.
      *
      *
      * @param list об'єкт {@link NumberListImpl}, що містить цифри числа
      * @return десяткове значення числа
      */
     public static String toDecimal(NumberListImpl list) {
-        String result = "0";
+        return toDecimalAccumulator(list).toString();
+    }
+
 
-        for (int i = 0; i < list.size(); i++) {
-            result = multiply(result, list.getBase());
-            result = add(result, list.get(i));
+    /**
+     * Обчислює десяткове значення числа у вигляді накопичувача,
+     * до якого можна дописувати наступні цифри того ж числа.
+     *
+     *
+     * @param list об'єкт {@link NumberListImpl}, що містить цифри числа
+     * @return накопичувач з десятковим значенням числа
+     */
+    public static DecimalAccumulator toDecimalAccumulator(NumberListImpl list) {
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+
+        DecimalAccumulator result = new DecimalAccumulator(list.getBase());
+        list.forEachDigit(result::append);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "toDecimal";
+            event.sourceBase = list.getBase();
+            event.targetBase = 10;
+            event.sourceDigits = list.size();
+            event.targetDigits = result.toString().length();
+            event.commit();
         }
 
         return result;
@@ -52,16 +140,31 @@ public class BaseConverter {
      * @return новий {@link NumberListImpl}, що містить число у новій основі
      */
     public static NumberListImpl fromDecimal(String value, int base) {
-        NumberListImpl result = new NumberListImpl(base);
-
         if (value == null || value.isEmpty()) {
-            return result;
+            return new NumberListImpl(base);
         }
 
         if (!value.matches("\\d+")) {
             throw new IllegalArgumentException("Invalid decimal number");
         }
 
+        ConversionCache c = cache;
+        if (c == null)
+            return parseDecimal(value, base);
+
+        byte[] digits = new byte[value.length()];
+        for (int i = 0; i < digits.length; i++)
+            digits[i] = (byte) (value.charAt(i) - '0');
+
+        return cached(c, digits, 10, base, () -> parseDecimal(value, base));
+    }
+
+    private static NumberListImpl parseDecimal(String value, int base) {
+        NumberListImpl result = new NumberListImpl(base);
+
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+
         String current = value;
 
         while (!current.equals("0")) {
@@ -80,6 +183,16 @@ public class BaseConverter {
             if (current.isEmpty()) current = "0";
         }
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "fromDecimal";
+            event.sourceBase = 10;
+            event.targetBase = base;
+            event.sourceDigits = value.length();
+            event.targetDigits = result.size();
+            event.commit();
+        }
+
         return result;
     }
 
@@ -92,39 +205,79 @@ public class BaseConverter {
      * @return нове число у вигляді {@link NumberListImpl} в основі newBase
      */
     public static NumberListImpl convert(NumberListImpl src, int newBase) {
-        String decimal = toDecimal(src);
-        return fromDecimal(decimal, newBase);
-    }
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
 
-    private static String add(String number, int digit) {
-        StringBuilder sb = new StringBuilder();
-        int carry = digit;
+        ConversionCache c = cache;
+        NumberListImpl result = c == null
+            ? convertUncached(src, newBase)
+            : cached(c, src.toByteArray(), src.getBase(), newBase, () -> convertUncached(src, newBase));
 
-        for (int i = number.length() - 1; i >= 0; i--) {
-            int sum = (number.charAt(i) - '0') + carry;
-            sb.append(sum % 10);
-            carry = sum / 10;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "convert";
+            event.sourceBase = src.getBase();
+            event.targetBase = newBase;
+            event.sourceDigits = src.size();
+            event.targetDigits = result.size();
+            event.commit();
         }
 
-        if (carry > 0) sb.append(carry);
-        return sb.reverse().toString();
+        return result;
     }
 
-    private static String multiply(String number, int multiplier) {
-        StringBuilder sb = new StringBuilder();
-        int carry = 0;
-
-        for (int i = number.length() - 1; i >= 0; i--) {
-            int prod = (number.charAt(i) - '0') * multiplier + carry;
-            sb.append(prod % 10);
-            carry = prod / 10;
+    private static NumberListImpl convertUncached(NumberListImpl src, int newBase) {
+        if (src.getBase() == newBase)
+            return withoutLeadingZeros(src.copy());
+        if (src.size() >= bigIntegerThreshold) {
+            BigInteger value = isSparse(src)
+                ? src.toRunLength().toBigInteger()
+                : src.toBigInteger();
+            return NumberListImpl.fromBigInteger(value, newBase);
         }
+        return parseDecimal(src.toDecimalString(), newBase);
+    }
 
-        while (carry > 0) {
-            sb.append(carry % 10);
-            carry /= 10;
+    /**
+     * Перевіряє, чи складається число з довгих серій однакових цифр, тобто чи вигідно
+     * обробляти його по серіях ({@link RunLengthDigits}). Серії лише рахуються
+     * за один прохід, що зупиняється, щойно їх стає забагато.
+     *
+     * @param number число
+     * @return true, якщо середня довжина серії не менша за {@link #SPARSE_RUN_LENGTH}
+     */
+    static boolean isSparse(NumberListImpl number) {
+        int limit = number.size() / SPARSE_RUN_LENGTH;
+        int runs = 0;
+        int previous = -1;
+        for (DigitCursor c = number.digitCursor(); c.hasNext(); ) {
+            byte d = c.nextDigit();
+            if (d != previous) {
+                if (++runs > limit) return false;
+                previous = d;
+            }
         }
+        return true;
+    }
 
-        return sb.reverse().toString();
+    /**
+     * Видаляє провідні нулі так само, як перетворення через десяткове значення:
+     * нуль стає порожнім списком.
+     */
+    private static NumberListImpl withoutLeadingZeros(NumberListImpl number) {
+        while (!number.isEmpty() && number.getDigit(0) == 0)
+            number.remove(0);
+        return number;
+    }
+
+    private static NumberListImpl cached(ConversionCache c, byte[] source, int sourceBase, int targetBase,
+                                         Supplier<NumberListImpl> conversion) {
+        byte[] digits = c.get(source, sourceBase, targetBase);
+        if (digits != null)
+            return NumberListImpl.fromDigits(digits, targetBase);
+
+        NumberListImpl result = conversion.get();
+        c.put(source, sourceBase, targetBase, result.toByteArray());
+        return result;
     }
 }
@@ -0,0 +1,165 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Перетворення цифр числа у {@link BigInteger} і назад.
+ * <p>
+ * Цифри обробляються групами: {@code k} цифр основи {@code base} утворюють
+ * одне слово за основою {@code base^k} — найбільшим степенем, що вміщується
+ * у {@code long}. Слова об'єднуються (та розділяються) методом «поділяй і владарюй»
+ * за степенями {@code base^(k * 2^j)}, тому основну роботу виконують
+ * субквадратичні множення та ділення {@link BigInteger}.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class BigIntegerCodec {
+
+    private final int base;
+
+    /** Кількість цифр в одному слові. */
+    private final int digitsPerWord;
+
+    /** {@code powers[j] = base^(digitsPerWord * 2^j)}. */
+    private final List<BigInteger> powers = new ArrayList<>();
+
+    /**
+     * Створює кодек для вказаної основи.
+     *
+     * @param base основа системи числення цифр
+     */
+    public BigIntegerCodec(int base) {
+        if (base < 2)
+            throw new IllegalArgumentException("Invalid base: " + base);
+        this.base = base;
+
+        long wordBase = 1;
+        int k = 0;
+        while (wordBase <= Long.MAX_VALUE / base) {
+            wordBase *= base;
+            k++;
+        }
+        this.digitsPerWord = k;
+        this.powers.add(BigInteger.valueOf(wordBase));
+    }
+
+    /**
+     * Обчислює значення числа за його цифрами.
+     *
+     * @param digits цифри від старшої до молодшої
+     * @return значення числа; {@link BigInteger#ZERO} для порожнього масиву
+     */
+    public BigInteger toBigInteger(byte[] digits) {
+        if (digits.length == 0) return BigInteger.ZERO;
+        return fromWords(toWords(digits));
+    }
+
+    /** Кількість цифр в одному слові. */
+    int digitsPerWord() {
+        return digitsPerWord;
+    }
+
+    /** Пакує цифри (від старшої) у слова за основою {@code base^k} (від молодшого). */
+    long[] toWords(byte[] digits) {
+        int n = digits.length;
+        int words = (n + digitsPerWord - 1) / digitsPerWord;
+        long[] w = new long[words];
+        for (int i = 0; i < words; i++) {
+            int to = n - i * digitsPerWord;
+            int from = Math.max(0, to - digitsPerWord);
+            long word = 0;
+            for (int j = from; j < to; j++)
+                word = word * base + digits[j];
+            w[i] = word;
+        }
+        return w;
+    }
+
+    /** Обчислює значення слів (від молодшого); порожній масив дає нуль. */
+    BigInteger fromWords(long[] w) {
+        return w.length == 0 ? BigInteger.ZERO : combine(w, 0, w.length);
+    }
+
+    /** Об'єднує слова {@code w[from..to)} (від молодшого): {@code high * B^h + low}. */
+    private BigInteger combine(long[] w, int from, int to) {
+        int count = to - from;
+        if (count == 1) return BigInteger.valueOf(w[from]);
+
+        int half = Integer.highestOneBit(count - 1);
+        BigInteger low = combine(w, from, from + half);
+        BigInteger high = combine(w, from + half, to);
+        return high.multiply(power(Integer.numberOfTrailingZeros(half))).add(low);
+    }
+
+    /**
+     * Обчислює цифри невідʼємного значення.
+     *
+     * @param value значення
+     * @return цифри від старшої до молодшої без провідних нулів; порожній масив для нуля
+     * @throws IllegalArgumentException якщо значення відʼємне
+     */
+    public byte[] toDigits(BigInteger value) {
+        if (value.signum() < 0)
+            throw new IllegalArgumentException("Negative value: " + value);
+        if (value.signum() == 0) return new byte[0];
+
+        long[] w = toWords(value);
+        int top = w.length - 1;
+
+        int topDigits = 0;
+        for (long v = w[top]; v > 0; v /= base) topDigits++;
+
+        byte[] digits = new byte[topDigits + top * digitsPerWord];
+        int pos = digits.length;
+        for (int i = 0; i <= top; i++) {
+            long word = w[i];
+            int count = i == top ? topDigits : digitsPerWord;
+            for (int d = 0; d < count; d++) {
+                digits[--pos] = (byte) (word % base);
+                word /= base;
+            }
+        }
+        return digits;
+    }
+
+    /** Розкладає невідʼємне значення на слова (від молодшого) без старших нульових слів. */
+    long[] toWords(BigInteger value) {
+        if (value.signum() == 0) return new long[0];
+
+        int j = 0;
+        while (power(j).compareTo(value) <= 0) j++;
+
+        long[] w = new long[1 << j];
+        split(value, j, w, 0);
+
+        int top = w.length - 1;
+        while (w[top] == 0) top--;
+        return top == w.length - 1 ? w : Arrays.copyOf(w, top + 1);
+    }
+
+    /** Розкладає {@code value < power(j)} на {@code 2^j} слів, починаючи з {@code w[pos]}. */
+    private void split(BigInteger value, int j, long[] w, int pos) {
+        if (j == 0) {
+            w[pos] = value.longValue();
+            return;
+        }
+
+        BigInteger[] qr = value.divideAndRemainder(power(j - 1));
+        split(qr[1], j - 1, w, pos);
+        split(qr[0], j - 1, w, pos + (1 << (j - 1)));
+    }
+
+    private BigInteger power(int j) {
+        while (powers.size() <= j) {
+            BigInteger last = powers.get(powers.size() - 1);
+            powers.add(last.multiply(last));
+        }
+        return powers.get(j);
+    }
+}
@@ -1,5 +1,15 @@
 package ua.kpi.comsys.test2.implementation.internal;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ua.kpi.comsys.test2.DigitCursor;
 import ua.kpi.comsys.test2.NumberList;
 import ua.kpi.comsys.test2.implementation.NumberListImpl;
 
@@ -9,6 +19,10 @@ import ua.kpi.comsys.test2.implementation.NumberListImpl;
  * <p>
  * Обидва операнди подаються у вигляді об’єктів {@link NumberList},
  * що зберігають число у своїй внутрішній системі числення.
+ * <p>
+ * Окрім одиночного виклику {@link #apply(NumberList, NumberList)},
+ * підтримується пакетне виконання операції над багатьма парами операндів
+ * ({@link #applyAll(List, List)}).
  *
  *
  * @author Андрій Шевчук
@@ -26,28 +40,114 @@ public class BitwiseAndOperation {
      * @return новий {@link NumberListImpl}, що містить результат операції у трійковій системі числення
      */
     public static NumberListImpl apply(NumberList left, NumberList right) {
+        return and(toBinary(left), toBinary(right));
+    }
+
 
-        NumberListImpl leftBin =
-            BaseConverter.convert((NumberListImpl) left, 2);
-        NumberListImpl rightBin =
-            BaseConverter.convert((NumberListImpl) right, 2);
+    /**
+     * Виконує побітове AND для кожної пари операндів {@code lefts[i] & rights[i]}
+     * на віртуальних потоках.
+     * <p>
+     * Для кожного виклику створюється окремий виконавець, який завершується, щойно
+     * завершиться пакет, тому виклик не залишає після себе жодних ресурсів.
+     *
+     * @param lefts  перші операнди
+     * @param rights другі операнди
+     * @return майбутній список результатів у тому ж порядку, що й пари операндів
+     * @throws IllegalArgumentException якщо списки операндів мають різну довжину
+     * @see #applyAll(List, List, Executor)
+     */
+    public static CompletableFuture<List<NumberListImpl>> applyAll(List<? extends NumberList> lefts,
+                                                                   List<? extends NumberList> rights) {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("and-batch-", 0).factory());
+        try {
+            CompletableFuture<List<NumberListImpl>> results = applyAll(lefts, rights, executor);
+            results.whenComplete((r, e) -> executor.shutdown());
+            return results;
+        } catch (RuntimeException e) {
+            executor.shutdown();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Виконує побітове AND для кожної пари операндів {@code lefts[i] & rights[i]}
+     * на вказаному виконавці.
+     * <p>
+     * Кожен операнд перетворюється у двійкову систему лише один раз,
+     * навіть якщо той самий об'єкт зустрічається у кількох парах.
+     * Операнди не змінюються.
+     *
+     * @param lefts    перші операнди
+     * @param rights   другі операнди
+     * @param executor виконавець, на якому запускаються перетворення та операції
+     * @return майбутній список результатів у тому ж порядку, що й пари операндів
+     * @throws IllegalArgumentException якщо списки операндів мають різну довжину
+     */
+    public static CompletableFuture<List<NumberListImpl>> applyAll(List<? extends NumberList> lefts,
+                                                                   List<? extends NumberList> rights,
+                                                                   Executor executor) {
+        if (lefts.size() != rights.size())
+            throw new IllegalArgumentException("Operand lists must have the same size");
 
-        int max = Math.max(leftBin.size(), rightBin.size());
-        padWithZeros(leftBin, max);
-        padWithZeros(rightBin, max);
+        Map<NumberList, CompletableFuture<NumberListImpl>> images = new IdentityHashMap<>();
+        List<CompletableFuture<NumberListImpl>> results = new ArrayList<>(lefts.size());
 
-        NumberListImpl andResult = new NumberListImpl(2);
-        for (int i = 0; i < max; i++) {
-            byte bit = (byte) (leftBin.get(i) & rightBin.get(i));
-            andResult.add(bit);
+        for (int i = 0; i < lefts.size(); i++) {
+            CompletableFuture<NumberListImpl> left = binaryImage(images, lefts.get(i), executor);
+            CompletableFuture<NumberListImpl> right = binaryImage(images, rights.get(i), executor);
+            results.add(left.thenCombineAsync(right, BitwiseAndOperation::and, executor));
         }
 
-        return BaseConverter.convert(andResult, 3);
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+    }
+
+    private static CompletableFuture<NumberListImpl> binaryImage(
+            Map<NumberList, CompletableFuture<NumberListImpl>> images, NumberList operand, Executor executor) {
+        return images.computeIfAbsent(operand,
+            o -> CompletableFuture.supplyAsync(() -> toBinary(o), executor));
     }
 
-    private static void padWithZeros(NumberListImpl list, int size) {
-        while (list.size() < size) {
-            list.addFirstDigit((byte) 0);
+    static NumberListImpl toBinary(NumberList operand) {
+        return BaseConverter.convert(normalize(operand), 2);
+    }
+
+    /**
+     * Приводить операнд будь-якого типу до {@link NumberListImpl} без зміни операнда.
+     * Ліниве представлення матеріалізується, інші реалізації копіюються за цифрами
+     * у своїй основі системи числення; основою невідомих реалізацій вважається
+     * основна система числення (трійкова).
+     */
+    private static NumberListImpl normalize(NumberList operand) {
+        if (operand instanceof NumberListImpl number) return number;
+        if (operand instanceof LazyScaleList lazy) return lazy.materialize();
+
+        int base = operand instanceof JournaledNumberList journaled ? journaled.getBase() : 3;
+        byte[] digits = new byte[operand.size()];
+        DigitCursor cursor = operand.digitCursor();
+        for (int i = 0; cursor.hasNext(); i++)
+            digits[i] = cursor.nextDigit();
+        return NumberListImpl.fromDigits(digits, base);
+    }
+
+    /**
+     * Обчислює AND двох двійкових чисел, вирівнюючи їх за молодшими розрядами.
+     * Операнди з довгими серіями однакових бітів обробляються серія за серією
+     * ({@link RunLengthDigits#and(RunLengthDigits)}), решта пакуються у слова
+     * по 62 біти, і AND виконується пословно.
+     * Вхідні списки не змінюються, тому двійкові образи можна спільно
+     * використовувати у кількох операціях.
+     */
+    static NumberListImpl and(NumberListImpl leftBin, NumberListImpl rightBin) {
+        if (BaseConverter.isSparse(leftBin) && BaseConverter.isSparse(rightBin)) {
+            RunLengthDigits runs = leftBin.toRunLength().and(rightBin.toRunLength());
+            return BaseConverter.convert(NumberListImpl.fromRunLength(runs), 3);
         }
+
+        PackedNumber andResult = leftBin.toPacked().and(rightBin.toPacked());
+        return BaseConverter.convert(NumberListImpl.fromPacked(andResult), 3);
     }
 }
@@ -1,5 +1,9 @@
 package ua.kpi.comsys.test2.implementation.internal;
 
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
 /**
  * Реалізація кільцевого двонаправленого списку для зберігання цифр числа.
  * <p>
@@ -11,10 +15,18 @@ package ua.kpi.comsys.test2.implementation.internal;
  * <ul>
  *     <li>Отримання та зміну значення за індексом;</li>
  *     <li>Додавання у кінець або в довільну позицію;</li>
- *     <li>Видалення елемента;</li>
+ *     <li>Видалення елемента або всіх елементів за умовою за один прохід;</li>
  *     <li>Пошук вузла за індексом з оптимізованим обходом;</li>
- *     <li>Додавання елемента на початок.</li>
+ *     <li>Додавання елемента на початок;</li>
+ *     <li>Вставка цілого ланцюжка вузлів за O(1) після пошуку позиції;</li>
+ *     <li>Циклічний зсув за O(1) та повторне використання видалених вузлів;</li>
+ *     <li>Зміна порядку елементів на протилежний за O(1).</li>
  * </ul>
+ * <p>
+ * Логічний порядок елементів визначається прапорцем напрямку: у розвернутому
+ * списку посилання {@code next} і {@code prev} вузлів міняються ролями.
+ * Тому обхід вузлів поза цим класом виконується лише через {@link #next(Node)}
+ * та {@link #prev(Node)}.
  *
  *
  * @author Андрій Шевчук
@@ -27,39 +39,128 @@ public class CircularDoublyList {
     private Node head = null;
     private int size = 0;
 
+    /** Чи міняються ролями посилання {@code next} і {@code prev} вузлів. */
+    private boolean reversed = false;
+
+    /** Лічильник структурних змін (вставок та видалень) для відстеження представлень списку. */
+    private int modCount = 0;
+
+    /** Лічильник будь-яких змін, включно із заміною значень. */
+    private long version = 0;
+
+    /** Кількість входжень кожного значення; {@code null}, доки індекс цифр не ввімкнений. */
+    private int[] counts;
+
+    /** Індекс першого входження кожного значення або -1; {@code null}, якщо застарів. */
+    private int[] first;
+
+    /** Індекс останнього входження кожного значення або -1; {@code null}, якщо застарів. */
+    private int[] last;
+
+    /** Вершина стеку вузлів для повторного використання, зв'язаних через {@code next}. */
+    private Node pool;
+    private int poolSize = 0;
+    private int poolCapacity = 0;
+
+    /** Кількість переходів між вузлами, зроблених пошуком за індексом. */
+    private long indexSteps = 0;
+
+    /** Кількість додаткових власників, з якими список спільний до першої зміни. */
+    private int sharers = 0;
+
     public int size() {
         return size;
     }
 
+    public int modCount() {
+        return modCount;
+    }
+
+    public long version() {
+        return version;
+    }
+
     public boolean isEmpty() {
         return size == 0;
     }
 
+    public boolean isReversed() {
+        return reversed;
+    }
+
+    /**
+     * Повертає вузол, що йде після вказаного у логічному порядку списку.
+     *
+     * @param n вузол цього списку
+     * @return наступний вузол (після хвоста — голова)
+     */
+    public Node next(Node n) {
+        return reversed ? n.prev : n.next;
+    }
+
+    /**
+     * Повертає вузол, що йде перед вказаним у логічному порядку списку.
+     *
+     * @param n вузол цього списку
+     * @return попередній вузол (перед головою — хвіст)
+     */
+    public Node prev(Node n) {
+        return reversed ? n.next : n.prev;
+    }
+
+    /** Зв'язує вузли так, що {@code b} логічно йде одразу після {@code a}. */
+    private void link(Node a, Node b) {
+        if (reversed) {
+            a.prev = b;
+            b.next = a;
+        } else {
+            a.next = b;
+            b.prev = a;
+        }
+    }
+
     public byte get(int index) {
         return nodeAt(index).value;
     }
 
-    public void set(int index, byte value) {
-        nodeAt(index).value = value;
+    public byte set(int index, byte value) {
+        return set(nodeAt(index), value);
+    }
+
+    /**
+     * Замінює значення вказаного вузла цього списку.
+     *
+     * @param target вузол цього списку
+     * @param value  нове значення
+     * @return попереднє значення
+     */
+    public byte set(Node target, byte value) {
+        byte old = target.value;
+        target.value = value;
+        version++;
+
+        if (counts != null) {
+            counts[old]--;
+            counts[value]++;
+            first = null;
+            last = null;
+        }
+        return old;
     }
 
     public void add(byte value) {
-        Node n = new Node(value);
+        Node n = newNode(value);
 
         if (head == null) {
             head = n;
             head.next = head;
             head.prev = head;
         } else {
-            Node tail = head.prev;
-
-            tail.next = n;
-            n.prev = tail;
-
-            n.next = head;
-            head.prev = n;
+            Node tail = prev(head);
+            link(tail, n);
+            link(n, head);
         }
-        size++;
+        linked(value);
     }
 
     public void add(int index, byte value) {
@@ -69,34 +170,53 @@ public class CircularDoublyList {
         }
 
         Node target = nodeAt(index);
-        Node newNode = new Node(value);
+        Node newNode = newNode(value);
 
-        Node prev = target.prev;
-        prev.next = newNode;
-        newNode.prev = prev;
-
-        newNode.next = target;
-        target.prev = newNode;
+        link(prev(target), newNode);
+        link(newNode, target);
 
         if (index == 0) {
             head = newNode;
         }
 
-        size++;
+        linked(value);
     }
 
     public byte remove(int index) {
         Node target = nodeAt(index);
         byte val = target.value;
+        unlink(target);
+        return val;
+    }
+
+    /**
+     * Видаляє за один прохід усі вузли, значення яких задовольняють умову.
+     *
+     * @param filter умова видалення
+     * @return кількість видалених вузлів
+     */
+    public int removeIf(IntPredicate filter) {
+        int removed = 0;
+        Node curr = head;
+
+        for (int i = 0, n = size; i < n; i++) {
+            Node next = next(curr);
+            if (filter.test(curr.value)) {
+                unlink(curr);
+                removed++;
+            }
+            curr = next;
+        }
 
+        return removed;
+    }
+
+    private void unlink(Node target) {
         if (size == 1) {
             head = null;
         } else {
-            Node prev = target.prev;
-            Node next = target.next;
-
-            prev.next = next;
-            next.prev = prev;
+            Node next = next(target);
+            link(prev(target), next);
 
             if (target == head) {
                 head = next;
@@ -104,20 +224,51 @@ public class CircularDoublyList {
         }
 
         size--;
-        return val;
+        modCount++;
+        version++;
+        if (counts != null) {
+            counts[target.value]--;
+            first = null;
+            last = null;
+        }
+        recycle(target);
+    }
+
+    private void linked(byte value) {
+        size++;
+        modCount++;
+        version++;
+        if (counts != null) {
+            counts[value]++;
+            first = null;
+            last = null;
+        }
+    }
+
+    /**
+     * Повертає кількість переходів між вузлами, зроблених {@link #nodeAt(int)}
+     * за весь час існування списку. На відміну від часу виконання, лічильник
+     * детермінований, тому придатний для перевірки складності операцій.
+     *
+     * @return кількість переходів
+     */
+    public long indexSteps() {
+        return indexSteps;
     }
 
     public Node nodeAt(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
 
         if (index <= size / 2) {
+            indexSteps += index;
             Node curr = head;
-            for (int i = 0; i < index; i++) curr = curr.next;
+            for (int i = 0; i < index; i++) curr = next(curr);
             return curr;
         }
 
-        Node curr = head.prev;
-        for (int i = size - 1; i > index; i--) curr = curr.prev;
+        indexSteps += size - 1 - index;
+        Node curr = prev(head);
+        for (int i = size - 1; i > index; i--) curr = prev(curr);
 
         return curr;
     }
@@ -127,24 +278,450 @@ public class CircularDoublyList {
     }
 
     public void addFirst(byte value) {
-        Node newNode = new Node(value);
+        Node newNode = newNode(value);
 
         if (head == null) {
             head = newNode;
             head.next = head;
             head.prev = head;
         } else {
-            Node tail = head.prev;
+            link(prev(head), newNode);
+            link(newNode, head);
+            head = newNode;
+        }
+
+        linked(value);
+    }
+
+    /**
+     * Вставляє всі вузли списку {@code segment} перед позицією {@code index},
+     * перепризначаючи лише чотири посилання. Після виклику {@code segment} порожній.
+     * <p>
+     * Якщо напрямок {@code segment} не збігається з напрямком цього списку,
+     * посилання його вузлів спершу переорієнтовуються за один прохід.
+     *
+     * @param index   позиція вставки (0..size)
+     * @param segment список, вузли якого переносяться у цей список
+     * @throws IndexOutOfBoundsException якщо індекс некоректний
+     * @throws IllegalArgumentException  якщо {@code segment} є цим самим списком
+     */
+    public void addAll(int index, CircularDoublyList segment) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        if (segment == this) throw new IllegalArgumentException("Cannot splice list into itself");
+        if (segment.isEmpty()) return;
+
+        segment.orient(reversed);
+        Node segmentHead = segment.head;
+        Node segmentTail = segment.prev(segmentHead);
+
+        if (head == null) {
+            head = segmentHead;
+        } else {
+            Node target = index == size ? head : nodeAt(index);
+            link(prev(target), segmentHead);
+            link(segmentTail, target);
 
-            newNode.next = head;
-            newNode.prev = tail;
+            if (index == 0) {
+                head = segmentHead;
+            }
+        }
 
-            tail.next = newNode;
-            head.prev = newNode;
+        if (counts != null) {
+            if (segment.counts != null && segment.counts.length == counts.length) {
+                for (int v = 0; v < counts.length; v++) counts[v] += segment.counts[v];
+            } else {
+                segment.forEach(v -> counts[v]++);
+            }
+            first = null;
+            last = null;
+        }
 
-            head = newNode;
+        size += segment.size;
+        modCount++;
+        version++;
+        segment.detach();
+    }
+
+    /**
+     * Відокремлює елементи, починаючи з позиції {@code index}, у новий список,
+     * перепризначаючи лише чотири посилання після пошуку вузла розриву.
+     * <p>
+     * Якщо ввімкнений індекс цифр, лічильники обох частин обчислюються
+     * проходом по коротшій з них.
+     *
+     * @param index позиція першого елемента нового списку (0..size)
+     * @return новий список з тим самим напрямком, що містить відокремлені елементи
+     * @throws IndexOutOfBoundsException якщо індекс некоректний
+     */
+    public CircularDoublyList splitAt(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+
+        CircularDoublyList tailPart = new CircularDoublyList();
+        tailPart.reversed = reversed;
+        if (index == size) return tailPart;
+
+        Node splitHead = nodeAt(index);
+        int tailSize = size - index;
+
+        if (counts != null) {
+            boolean countHead = index <= tailSize;
+            int[] part = new int[counts.length];
+            Node curr = countHead ? head : splitHead;
+            for (int i = 0, n = countHead ? index : tailSize; i < n; i++) {
+                part[curr.value]++;
+                curr = next(curr);
+            }
+
+            int[] rest = counts.clone();
+            for (int v = 0; v < rest.length; v++) rest[v] -= part[v];
+            counts = countHead ? part : rest;
+            tailPart.counts = countHead ? rest : part;
+            first = null;
+            last = null;
         }
 
-        size++;
+        if (index == 0) {
+            tailPart.head = head;
+            head = null;
+        } else {
+            Node headTail = prev(splitHead);
+            Node splitTail = prev(head);
+            link(headTail, head);
+            link(splitTail, splitHead);
+            tailPart.head = splitHead;
+        }
+
+        tailPart.size = tailSize;
+        size = index;
+        modCount++;
+        version++;
+        return tailPart;
+    }
+
+    /**
+     * Створює новий список з тими самими значеннями за один прохід,
+     * зв'язуючи нові вузли напряму, без пошуку позиції та перерахунку індексу.
+     * <p>
+     * Копія має прямий напрямок і успадковує лічильники змін та індекс цифр,
+     * тому може підмінити цей список у його власника без того, щоб відкриті
+     * представлення вважали список зміненим. Пул вузлів копія не успадковує:
+     * тимчасові ланцюжки, що вставляються в інші списки, не повинні повертати
+     * вузли у пул.
+     *
+     * @return копія списку
+     */
+    public CircularDoublyList copy() {
+        CircularDoublyList copy = new CircularDoublyList();
+        copy.modCount = modCount;
+        copy.version = version;
+        if (counts != null) {
+            copy.counts = counts.clone();
+            copy.first = first == null ? null : first.clone();
+            copy.last = last == null ? null : last.clone();
+        }
+        if (head == null) return copy;
+
+        Node copyHead = new Node(head.value);
+        Node tail = copyHead;
+        for (Node curr = next(head); curr != head; curr = next(curr)) {
+            Node n = new Node(curr.value);
+            tail.next = n;
+            n.prev = tail;
+            tail = n;
+        }
+        tail.next = copyHead;
+        copyHead.prev = tail;
+
+        copy.head = copyHead;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Позначає, що список використовує ще один власник, і повертає цей самий список.
+     * Кожен власник перед першою зміною має викликати {@link #unshare()}.
+     *
+     * @return цей список
+     */
+    public CircularDoublyList share() {
+        sharers++;
+        return this;
+    }
+
+    /**
+     * Перевіряє, чи використовують список кілька власників.
+     *
+     * @return true, якщо список ще не може змінюватися на місці
+     */
+    public boolean isShared() {
+        return sharers > 0;
+    }
+
+    /**
+     * Відмовляється від спільного використання списку: повертає власну копію
+     * для того власника, що викликав метод. Останній власник продовжує
+     * змінювати цей список на місці без копіювання.
+     * Копія зберігає ємність пулу вузлів цього списку.
+     *
+     * @return копія списку
+     * @throws IllegalStateException якщо список не спільний
+     */
+    public CircularDoublyList unshare() {
+        if (sharers == 0) throw new IllegalStateException("List is not shared");
+
+        sharers--;
+        CircularDoublyList copy = copy();
+        copy.poolCapacity = poolCapacity;
+        return copy;
+    }
+
+    /**
+     * Видаляє всі елементи списку.
+     */
+    public void clear() {
+        for (Node curr = head; curr != null && poolSize < poolCapacity; ) {
+            Node next = next(curr) == head ? null : next(curr);
+            recycle(curr);
+            curr = next;
+        }
+        detach();
+    }
+
+    /**
+     * Робить список порожнім, не повертаючи вузли у пул: вузли могли
+     * перейти до іншого списку, тому їхні посилання змінювати не можна.
+     */
+    private void detach() {
+        head = null;
+        size = 0;
+        reversed = false;
+        modCount++;
+        version++;
+        if (counts != null) {
+            Arrays.fill(counts, 0);
+            first = null;
+            last = null;
+        }
+    }
+
+    /**
+     * Вмикає індекс входжень значень {@code 0..alphabetSize-1}.
+     * <p>
+     * Після ввімкнення кожна зміна списку оновлює лічильник входжень,
+     * тому {@link #count(byte)} виконується за O(1). Перше та останнє входження
+     * кожного значення обчислюються лише за запитом — одним проходом для всіх
+     * значень одразу — і залишаються дійсними до наступної зміни списку.
+     * Повторний виклик нічого не робить.
+     *
+     * @param alphabetSize кількість можливих значень елементів
+     */
+    public void enableDigitIndex(int alphabetSize) {
+        if (counts != null) return;
+
+        int[] c = new int[alphabetSize];
+        forEach(v -> c[v]++);
+        counts = c;
+    }
+
+    /**
+     * Повертає кількість елементів з указаним значенням.
+     * Потребує попереднього виклику {@link #enableDigitIndex(int)}.
+     *
+     * @param value значення
+     * @return кількість входжень
+     */
+    public int count(byte value) {
+        return value >= 0 && value < counts.length ? counts[value] : 0;
+    }
+
+    /**
+     * Повертає індекс першого входження значення або -1.
+     * Потребує попереднього виклику {@link #enableDigitIndex(int)}.
+     *
+     * @param value значення
+     * @return індекс першого входження
+     */
+    public int firstIndexOf(byte value) {
+        if (count(value) == 0) return -1;
+        if (first == null) first = scanPositions(true);
+        return first[value];
+    }
+
+    /**
+     * Повертає індекс останнього входження значення або -1.
+     * Потребує попереднього виклику {@link #enableDigitIndex(int)}.
+     *
+     * @param value значення
+     * @return індекс останнього входження
+     */
+    public int lastIndexOf(byte value) {
+        if (count(value) == 0) return -1;
+        if (last == null) last = scanPositions(false);
+        return last[value];
+    }
+
+    /**
+     * Знаходить перше (або останнє) входження всіх присутніх значень одним
+     * проходом з голови (або з хвоста), що зупиняється, щойно знайдені всі.
+     */
+    private int[] scanPositions(boolean fromHead) {
+        int[] positions = new int[counts.length];
+        Arrays.fill(positions, -1);
+
+        int missing = 0;
+        for (int c : counts)
+            if (c > 0) missing++;
+
+        Node curr = fromHead ? head : prev(head);
+        for (int i = 0; i < size && missing > 0; i++) {
+            if (positions[curr.value] == -1) {
+                positions[curr.value] = fromHead ? i : size - 1 - i;
+                missing--;
+            }
+            curr = fromHead ? next(curr) : prev(curr);
+        }
+        return positions;
+    }
+
+    /**
+     * Створює список з елементами масиву у тому ж порядку.
+     *
+     * @param values значення елементів
+     * @return новий список
+     */
+    public static CircularDoublyList of(byte[] values) {
+        CircularDoublyList result = new CircularDoublyList();
+        for (byte v : values)
+            result.add(v);
+        return result;
+    }
+
+    /**
+     * Копіює значення всіх елементів у новий масив за один прохід.
+     *
+     * @return масив значень від голови до хвоста
+     */
+    public byte[] toByteArray() {
+        byte[] result = new byte[size];
+        Node curr = head;
+        for (int i = 0; i < size; i++) {
+            result[i] = curr.value;
+            curr = next(curr);
+        }
+        return result;
+    }
+
+    /**
+     * Виконує дію для значення кожного елемента від голови до хвоста.
+     *
+     * @param action дія над значенням
+     */
+    public void forEach(IntConsumer action) {
+        Node curr = head;
+        for (int i = 0; i < size; i++) {
+            action.accept(curr.value);
+            curr = next(curr);
+        }
+    }
+
+    /**
+     * Циклічно зсуває список вліво на один елемент: перший елемент стає останнім.
+     * Вузли не переміщуються, змінюється лише голова списку.
+     */
+    public void rotateLeft() {
+        if (size <= 1) return;
+        head = next(head);
+        reordered();
+    }
+
+    /**
+     * Циклічно зсуває список вправо на один елемент: останній елемент стає першим.
+     * Вузли не переміщуються, змінюється лише голова списку.
+     */
+    public void rotateRight() {
+        if (size <= 1) return;
+        head = prev(head);
+        reordered();
+    }
+
+    /**
+     * Змінює порядок елементів на протилежний за O(1): хвіст стає головою,
+     * а посилання {@code next} і {@code prev} вузлів міняються ролями.
+     */
+    public void reverse() {
+        if (size <= 1) return;
+        head = prev(head);
+        reversed = !reversed;
+        reordered();
+    }
+
+    /**
+     * Фізично переорієнтовує посилання вузлів так, щоб прапорець напрямку
+     * був скинутий. Логічний порядок елементів не змінюється.
+     * Виконується за O(n), лише якщо список розвернутий.
+     */
+    public void normalize() {
+        orient(false);
+    }
+
+    /** Обмінює {@code next} і {@code prev} кожного вузла, доки напрямок не стане потрібним. */
+    private void orient(boolean direction) {
+        if (reversed == direction) return;
+
+        Node curr = head;
+        for (int i = 0; i < size; i++) {
+            Node n = curr.next;
+            curr.next = curr.prev;
+            curr.prev = n;
+            curr = n;
+        }
+        reversed = direction;
+    }
+
+    private void reordered() {
+        modCount++;
+        version++;
+        first = null;
+        last = null;
+    }
+
+    /**
+     * Задає максимальну кількість видалених вузлів, що зберігаються
+     * для повторного використання під час вставок.
+     * <p>
+     * За замовчуванням ємність дорівнює 0, тобто вузли не зберігаються.
+     * Зменшення ємності звільняє зайві вузли.
+     *
+     * @param capacity максимальний розмір пулу вузлів
+     * @throws IllegalArgumentException якщо ємність відʼємна
+     */
+    public void setNodePoolCapacity(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Negative pool capacity: " + capacity);
+
+        poolCapacity = capacity;
+        while (poolSize > capacity) {
+            pool = pool.next;
+            poolSize--;
+        }
+    }
+
+    private Node newNode(byte value) {
+        Node n = pool;
+        if (n == null) return new Node(value);
+
+        pool = n.next;
+        poolSize--;
+        n.next = null;
+        n.value = value;
+        return n;
+    }
+
+    private void recycle(Node n) {
+        if (poolSize >= poolCapacity) return;
+
+        n.prev = null;
+        n.next = pool;
+        pool = n;
+        poolSize++;
     }
 }
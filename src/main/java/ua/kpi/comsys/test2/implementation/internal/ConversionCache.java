@@ -0,0 +1,138 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кеш результатів перетворення між системами числення з витісненням
+ * найдавніше використаних записів (LRU).
+ * <p>
+ * Ключ — цифри вихідного числа разом з вихідною та новою основою,
+ * значення — цифри результату. Розмір кешу обмежений сумарною кількістю
+ * цифр у ключах і значеннях. Усі операції потокобезпечні.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class ConversionCache {
+
+    /**
+     * Знімок лічильників кешу.
+     *
+     * @param hits      кількість знайдених записів
+     * @param misses    кількість відсутніх записів
+     * @param evictions кількість витіснених записів
+     * @param entries   поточна кількість записів
+     * @param digits    поточна сумарна кількість цифр у записах
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long digits) {
+    }
+
+    private record Key(byte[] digits, int sourceBase, int targetBase, int hash) {
+
+        Key(byte[] digits, int sourceBase, int targetBase) {
+            this(digits, sourceBase, targetBase,
+                31 * (31 * Arrays.hashCode(digits) + sourceBase) + targetBase);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k
+                && hash == k.hash
+                && sourceBase == k.sourceBase
+                && targetBase == k.targetBase
+                && Arrays.equals(digits, k.digits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final long maxDigits;
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long digits = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Створює порожній кеш.
+     *
+     * @param maxDigits максимальна сумарна кількість цифр у ключах і значеннях
+     * @throws IllegalArgumentException якщо обмеження не додатне
+     */
+    public ConversionCache(long maxDigits) {
+        if (maxDigits <= 0)
+            throw new IllegalArgumentException("Cache size must be positive: " + maxDigits);
+        this.maxDigits = maxDigits;
+    }
+
+    /**
+     * Шукає результат перетворення.
+     *
+     * @param source     цифри вихідного числа
+     * @param sourceBase вихідна основа
+     * @param targetBase нова основа
+     * @return цифри результату або {@code null}, якщо запису немає
+     */
+    public byte[] get(byte[] source, int sourceBase, int targetBase) {
+        Key key = new Key(source, sourceBase, targetBase);
+        byte[] result;
+        synchronized (this) {
+            result = entries.get(key);
+        }
+
+        (result == null ? misses : hits).increment();
+        return result;
+    }
+
+    /**
+     * Зберігає результат перетворення, витісняючи найдавніше використані записи,
+     * доки сумарний розмір не вкладеться в обмеження. Записи, більші за
+     * обмеження, не зберігаються.
+     *
+     * @param source     цифри вихідного числа (масив не копіюється)
+     * @param sourceBase вихідна основа
+     * @param targetBase нова основа
+     * @param result     цифри результату (масив не копіюється)
+     */
+    public void put(byte[] source, int sourceBase, int targetBase, byte[] result) {
+        long weight = (long) source.length + result.length;
+        if (weight > maxDigits) return;
+
+        Key key = new Key(source, sourceBase, targetBase);
+        synchronized (this) {
+            byte[] old = entries.put(key, result);
+            digits += weight;
+            if (old != null)
+                digits -= source.length + old.length;
+
+            Iterator<Map.Entry<Key, byte[]>> eldest = entries.entrySet().iterator();
+            while (digits > maxDigits) {
+                Map.Entry<Key, byte[]> e = eldest.next();
+                digits -= e.getKey().digits.length + e.getValue().length;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Повертає поточні значення лічильників.
+     *
+     * @return знімок лічильників
+     */
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), digits);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Подія Java Flight Recorder для перетворення числа між системами числення
+ * ({@code convert}, {@code toDecimal}, {@code fromDecimal}, {@code changeScale}).
+ * <p>
+ * Тривалість перетворення записується самою подією.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+@Name("ua.kpi.comsys.test2.Conversion")
+@Label("Number Conversion")
+@Category({"NumberList", "Conversion"})
+@Description("Conversion of a number between numeral systems")
+@StackTrace(false)
+public class ConversionEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Source Base")
+    public int sourceBase;
+
+    @Label("Target Base")
+    public int targetBase;
+
+    @Label("Source Digits")
+    public int sourceDigits;
+
+    @Label("Target Digits")
+    public int targetDigits;
+}
@@ -0,0 +1,102 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.util.Arrays;
+
+/**
+ * Накопичувач десяткового значення числа, що будується дописуванням цифр.
+ * <p>
+ * Значення зберігається як масив «кінцівок» за основою 10<sup>9</sup>
+ * (від молодшої до старшої). Дописування цифри {@code d} до числа {@code N}
+ * дає {@code N * base + d}; щоб не проходити масив на кожну цифру,
+ * цифри спершу накопичуються у невеликому значенні {@code pending},
+ * а масив оновлюється одним множенням, коли множник досягає 2<sup>31</sup>.
+ * Перетворення у рядок лише форматує кінцівки.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class DecimalAccumulator {
+
+    private static final int RADIX = 1_000_000_000;
+    private static final int RADIX_DIGITS = 9;
+    private static final long MAX_SCALE = 1L << 31;
+
+    private final int base;
+
+    private int[] limbs = new int[4];
+    private int used = 0;
+
+    private long pendingValue = 0;
+    private long pendingScale = 1;
+
+    /** Результат останнього {@link #toString()}; {@code null} після дописування. */
+    private String cached;
+
+    /**
+     * Створює накопичувач зі значенням 0.
+     *
+     * @param base основа системи числення цифр, що дописуються
+     */
+    public DecimalAccumulator(int base) {
+        this.base = base;
+    }
+
+    /**
+     * Дописує молодшу цифру: {@code N = N * base + digit}.
+     *
+     * @param digit цифра у діапазоні {@code 0..base-1}
+     */
+    public void append(int digit) {
+        if (pendingScale > MAX_SCALE / base)
+            flush();
+
+        pendingValue = pendingValue * base + digit;
+        pendingScale *= base;
+        cached = null;
+    }
+
+    /**
+     * Повертає десяткове представлення накопиченого значення без провідних нулів.
+     *
+     * @return десятковий рядок; "0" для нульового значення
+     */
+    @Override
+    public String toString() {
+        if (cached != null) return cached;
+
+        flush();
+        if (used == 0) return cached = "0";
+
+        StringBuilder sb = new StringBuilder(used * RADIX_DIGITS);
+        sb.append(limbs[used - 1]);
+        for (int i = used - 2; i >= 0; i--) {
+            String limb = Integer.toString(limbs[i]);
+            for (int pad = limb.length(); pad < RADIX_DIGITS; pad++)
+                sb.append('0');
+            sb.append(limb);
+        }
+        return cached = sb.toString();
+    }
+
+    private void flush() {
+        if (pendingScale == 1) return;
+
+        long carry = pendingValue;
+        for (int i = 0; i < used; i++) {
+            long v = limbs[i] * pendingScale + carry;
+            limbs[i] = (int) (v % RADIX);
+            carry = v / RADIX;
+        }
+        while (carry > 0) {
+            if (used == limbs.length)
+                limbs = Arrays.copyOf(limbs, used * 2);
+            limbs[used++] = (int) (carry % RADIX);
+            carry /= RADIX;
+        }
+
+        pendingValue = 0;
+        pendingScale = 1;
+    }
+}
@@ -0,0 +1,156 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Примітивний {@link Spliterator} по цифрах {@link CircularDoublyList}.
+ * <p>
+ * Обхід виконується переходами по вузлах, а розділення — пошуком вузла
+ * посередині поточного діапазону, тому кожна частина має точно відомий розмір.
+ * Діапазони, коротші за {@link #MIN_SPLIT} цифр, не розділяються:
+ * накладні витрати паралельної обробки на них перевищують виграш.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class DigitSpliterator implements Spliterator.OfInt {
+
+    /** Мінімальний розмір частини після розділення. */
+    static final int MIN_SPLIT = 1 << 10;
+
+    private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | NONNULL;
+
+    private final CircularDoublyList list;
+    private final int expectedModCount;
+    private Node next;
+    private int remaining;
+
+    /**
+     * Створює spliterator по всіх цифрах списку.
+     *
+     * @param list список цифр
+     */
+    public DigitSpliterator(CircularDoublyList list) {
+        this(list, list.getHead(), list.size(), list.modCount());
+    }
+
+    private DigitSpliterator(CircularDoublyList list, Node next, int remaining, int expectedModCount) {
+        this.list = list;
+        this.next = next;
+        this.remaining = remaining;
+        this.expectedModCount = expectedModCount;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        Objects.requireNonNull(action);
+        if (remaining == 0) return false;
+        checkForComodification();
+
+        byte value = next.value;
+        next = list.next(next);
+        remaining--;
+        action.accept(value);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        Objects.requireNonNull(action);
+        Node curr = next;
+        int n = remaining;
+        remaining = 0;
+
+        for (int i = 0; i < n; i++) {
+            // дія могла змінити список і повернути вузли у пул, тому перевірка — перед кожним кроком
+            checkForComodification();
+            byte value = curr.value;
+            curr = list.next(curr);
+            action.accept(value);
+        }
+        next = curr;
+        checkForComodification();
+    }
+
+    @Override
+    public OfInt trySplit() {
+        if (remaining < 2 * MIN_SPLIT) return null;
+
+        int half = remaining >>> 1;
+        Node mid = next;
+        for (int i = 0; i < half; i++) mid = list.next(mid);
+
+        DigitSpliterator prefix = new DigitSpliterator(list, next, half, expectedModCount);
+        next = mid;
+        remaining -= half;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    /**
+     * Повертає той самий обхід у вигляді {@code Spliterator<Byte>}.
+     * Упаковка використовує кеш {@link Byte#valueOf(byte)}, тому не створює об'єктів.
+     *
+     * @return spliterator з упакованими цифрами
+     */
+    public Spliterator<Byte> boxed() {
+        return new Boxed(this);
+    }
+
+    private void checkForComodification() {
+        if (list.modCount() != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    private static final class Boxed implements Spliterator<Byte> {
+
+        private final DigitSpliterator digits;
+
+        Boxed(DigitSpliterator digits) {
+            this.digits = digits;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Byte> action) {
+            Objects.requireNonNull(action);
+            return digits.tryAdvance((IntConsumer) d -> action.accept((byte) d));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Byte> action) {
+            Objects.requireNonNull(action);
+            digits.forEachRemaining((IntConsumer) d -> action.accept((byte) d));
+        }
+
+        @Override
+        public Spliterator<Byte> trySplit() {
+            DigitSpliterator prefix = (DigitSpliterator) digits.trySplit();
+            return prefix == null ? null : new Boxed(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return digits.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
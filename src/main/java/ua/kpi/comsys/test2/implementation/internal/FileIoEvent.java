@@ -0,0 +1,42 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Подія Java Flight Recorder для завантаження числа з файлу
+ * або збереження числа у файл.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+@Name("ua.kpi.comsys.test2.FileIo")
+@Label("Number File I/O")
+@Category({"NumberList", "File I/O"})
+@Description("Loading a number from a file or saving it to a file")
+@StackTrace(false)
+public class FileIoEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Base")
+    public int base;
+
+    @Label("Digits")
+    public int digits;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,520 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+import ua.kpi.comsys.test2.DigitCursor;
+import ua.kpi.comsys.test2.NumberList;
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Число, зміни якого зберігаються у файлах інкрементально.
+ * <p>
+ * Стан складається зі знімка (snapshot) — цифр у власній системі числення
+ * числа — та журналу змін, до якого дописується по одному запису фіксованого
+ * розміру на кожну зміну ({@code add}, {@code set}, {@code remove}, зсуви,
+ * розворот, сортування, очищення). Тому збереження зміни коштує O(розміру зміни),
+ * а не O(розміру числа), як {@link NumberListImpl#saveList(java.io.File)}.
+ * <p>
+ * Під час відкриття знімок завантажується, а журнали відтворюються.
+ * Коли кількість записів у журналі перевищує розмір числа, у фоні записується
+ * новий знімок і починається новий журнал, тому сумарна вартість ущільнення
+ * є амортизовано O(1) на зміну. Журнали нумеруються поколіннями:
+ * знімок покоління {@code g} відтворюється разом із журналами {@code g, g+1, ...},
+ * тож збій на будь-якому кроці ущільнення не призводить до втрати змін.
+ * <p>
+ * Клас не є потокобезпечним, як і {@link NumberListImpl}.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class JournaledNumberList extends AbstractList<Byte> implements NumberList, Closeable {
+
+    /**
+     * Режим запису журналу на диск.
+     */
+    public enum Durability {
+        /** Записи накопичуються у буфері і записуються, коли він заповнений, або під час {@link #sync()}. */
+        BUFFERED,
+        /** Кожен запис одразу передається операційній системі. */
+        WRITE,
+        /** Кожен запис одразу передається операційній системі та примусово записується на пристрій. */
+        FORCE
+    }
+
+    private static final int MAGIC = 0x4E4C534E;
+    private static final int HEADER_SIZE = 4 + 8 + 4 + 4;
+
+    /** Розмір запису журналу: код операції, індекс, значення. */
+    private static final int RECORD_SIZE = 1 + 4 + 1;
+
+    /** Мінімальна кількість записів журналу, після якої виконується ущільнення. */
+    private static final int MIN_COMPACT_RECORDS = 4096;
+
+    private static final byte INSERT = 1;
+    private static final byte SET = 2;
+    private static final byte REMOVE = 3;
+    private static final byte SHIFT_LEFT = 4;
+    private static final byte SHIFT_RIGHT = 5;
+    private static final byte REVERSE = 6;
+    private static final byte CLEAR = 7;
+    private static final byte SORT_ASCENDING = 8;
+    private static final byte SORT_DESCENDING = 9;
+
+    /** Виконавець фонового ущільнення: окремий віртуальний потік на задачу. */
+    private static final Executor COMPACTION_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Path snapshot;
+    private final NumberListImpl number;
+    private final Durability durability;
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+
+    private FileChannel log;
+    private long generation;
+    private long records;
+    private CompletableFuture<Void> compaction = CompletableFuture.completedFuture(null);
+
+    /** Помилка фонового ущільнення, ще не повідомлена викликом {@code compact}, {@code sync} чи {@code close}. */
+    private volatile IOException compactionFailure;
+
+    private JournaledNumberList(Path snapshot, NumberListImpl number, long generation, Durability durability)
+            throws IOException {
+        this.snapshot = snapshot;
+        this.number = number;
+        this.generation = generation;
+        this.durability = durability;
+        this.log = openLog(generation);
+        this.records = log.size() / RECORD_SIZE;
+    }
+
+    /**
+     * Відкриває число з буферизованим журналом.
+     *
+     * @param snapshot шлях до знімка; журнали зберігаються поруч
+     * @param base     система числення нового числа, якщо знімка ще немає
+     * @return число з відтвореними змінами
+     * @throws IOException якщо файли не можуть бути прочитані або пошкоджені
+     * @see #open(Path, int, Durability)
+     */
+    public static JournaledNumberList open(Path snapshot, int base) throws IOException {
+        return open(snapshot, base, Durability.BUFFERED);
+    }
+
+    /**
+     * Відкриває число: завантажує знімок (або створює порожнє число, якщо знімка немає)
+     * і відтворює всі журнали змін. Неповний останній запис журналу, що міг
+     * залишитися після збою, відкидається.
+     *
+     * @param snapshot   шлях до знімка; журнали зберігаються поруч
+     * @param base       система числення числа
+     * @param durability режим запису журналу
+     * @return число з відтвореними змінами
+     * @throws IOException якщо файли не можуть бути прочитані або пошкоджені
+     * @throws IllegalArgumentException якщо знімок збережений в іншій системі числення
+     */
+    public static JournaledNumberList open(Path snapshot, int base, Durability durability) throws IOException {
+        NumberListImpl number = new NumberListImpl(base);
+        long generation = 0;
+
+        if (Files.exists(snapshot)) {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC)
+                throw new IOException("Not a number snapshot: " + snapshot);
+
+            generation = data.getLong();
+            int storedBase = data.getInt();
+            int size = data.getInt();
+            if (storedBase != base)
+                throw new IllegalArgumentException("Snapshot base is " + storedBase + ", not " + base);
+            if (data.remaining() != size)
+                throw new IOException("Truncated snapshot: " + snapshot);
+
+            byte[] digits = new byte[size];
+            data.get(digits);
+            number = NumberListImpl.fromDigits(digits, base);
+        }
+
+        Files.deleteIfExists(logPath(snapshot, generation - 1));
+        while (Files.exists(logPath(snapshot, generation + 1))) {
+            replay(number, logPath(snapshot, generation), false);
+            generation++;
+        }
+        replay(number, logPath(snapshot, generation), true);
+
+        return new JournaledNumberList(snapshot, number, generation, durability);
+    }
+
+    private static Path logPath(Path snapshot, long generation) {
+        return snapshot.resolveSibling(snapshot.getFileName() + "." + generation + ".log");
+    }
+
+    /** Застосовує записи журналу; неповний хвіст останнього журналу обрізається. */
+    private static void replay(NumberListImpl number, Path path, boolean last) throws IOException {
+        if (!Files.exists(path)) return;
+
+        byte[] data = Files.readAllBytes(path);
+        int whole = data.length - data.length % RECORD_SIZE;
+        if (whole != data.length) {
+            if (!last) throw new IOException("Truncated journal: " + path);
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                ch.truncate(whole);
+            }
+        }
+
+        ByteBuffer records = ByteBuffer.wrap(data, 0, whole);
+        try {
+            while (records.hasRemaining())
+                apply(number, records.get(), records.getInt(), records.get());
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted journal: " + path, e);
+        }
+    }
+
+    private static void apply(NumberListImpl number, byte op, int index, byte value) {
+        switch (op) {
+            case INSERT -> number.add(index, value);
+            case SET -> number.setDigit(index, value);
+            case REMOVE -> number.remove(index);
+            case SHIFT_LEFT -> number.shiftLeft();
+            case SHIFT_RIGHT -> number.shiftRight();
+            case REVERSE -> number.reverse();
+            case CLEAR -> number.clear();
+            case SORT_ASCENDING -> number.sortAscending();
+            case SORT_DESCENDING -> number.sortDescending();
+            default -> throw new IllegalStateException("Unknown journal operation: " + op);
+        }
+    }
+
+    private FileChannel openLog(long generation) throws IOException {
+        return FileChannel.open(logPath(snapshot, generation),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Дописує запис до журналу відповідно до режиму запису
+     * і запускає ущільнення, якщо журнал завеликий.
+     */
+    private void journal(byte op, int index, byte value) {
+        try {
+            if (!buffer.hasRemaining()) flush();
+            buffer.put(op).putInt(index).put(value);
+            records++;
+
+            if (durability != Durability.BUFFERED) flush();
+            if (durability == Durability.FORCE) log.force(false);
+
+            // після невдалого ущільнення наступне запускається лише явно,
+            // щоб помилку отримав compact(), sync() або close(), а не зміна числа
+            if (records >= Math.max(MIN_COMPACT_RECORDS, number.size()) && compaction.isDone()
+                    && compactionFailure == null)
+                compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            log.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Записує всі накопичені записи журналу і примусово зберігає їх на пристрій.
+     *
+     * @throws IOException якщо журнал не може бути записаний
+     *         або фонове ущільнення завершилося помилкою
+     */
+    public void sync() throws IOException {
+        flush();
+        log.force(false);
+        rethrowCompactionFailure();
+    }
+
+    /**
+     * Починає новий журнал і записує знімок поточного стану у фоні.
+     * Поточні цифри копіюються під час виклику, тому зміни можна продовжувати одразу.
+     *
+     * @return майбутнє завершення запису знімка
+     * @throws IOException якщо журнал не може бути записаний
+     *         або попереднє фонове ущільнення завершилося помилкою
+     */
+    public CompletableFuture<Void> compact() throws IOException {
+        awaitCompaction();
+
+        sync();
+        log.close();
+        long next = ++generation;
+        log = openLog(next);
+        records = 0;
+
+        byte[] digits = number.toByteArray();
+        int base = number.getBase();
+        compaction = CompletableFuture.runAsync(() -> {
+            try {
+                writeSnapshot(digits, base, next);
+                Files.deleteIfExists(logPath(snapshot, next - 1));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, COMPACTION_EXECUTOR).whenComplete((ignored, e) -> {
+            if (e != null) compactionFailure = asIOException(e);
+        });
+        return compaction;
+    }
+
+    /** Дочікується поточного ущільнення і повідомляє його помилку, якщо вона є. */
+    private void awaitCompaction() throws IOException {
+        compaction.exceptionally(e -> null).join();
+        rethrowCompactionFailure();
+    }
+
+    /** Кидає запам'ятовану помилку фонового ущільнення один раз. */
+    private void rethrowCompactionFailure() throws IOException {
+        IOException failure = compactionFailure;
+        if (failure == null) return;
+
+        compactionFailure = null;
+        throw new IOException("Background compaction failed", failure);
+    }
+
+    private static IOException asIOException(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof UncheckedIOException u) return u.getCause();
+        if (cause instanceof IOException io) return io;
+        return new IOException(cause);
+    }
+
+    /** Записує знімок у тимчасовий файл і атомарно замінює ним попередній. */
+    private void writeSnapshot(byte[] digits, int base, long generation) throws IOException {
+        Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC).putLong(generation).putInt(base).putInt(digits.length).flip();
+            ByteBuffer[] data = {header, ByteBuffer.wrap(digits)};
+            while (data[1].hasRemaining())
+                ch.write(data);
+            ch.force(true);
+        }
+        Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Записує накопичені зміни, дочікується фонового ущільнення та закриває журнал.
+     *
+     * @throws IOException якщо журнал не може бути записаний
+     *         або фонове ущільнення завершилося помилкою
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            log.force(false);
+            awaitCompaction();
+        } finally {
+            log.close();
+        }
+    }
+
+    /**
+     * Повертає основу системи числення числа.
+     *
+     * @return основа системи числення
+     */
+    public int getBase() {
+        return number.getBase();
+    }
+
+    /**
+     * Повертає десяткове представлення числа.
+     *
+     * @return число у десятковій системі числення
+     */
+    public String toDecimalString() {
+        return number.toDecimalString();
+    }
+
+    @Override
+    public int size() {
+        return number.size();
+    }
+
+    @Override
+    public Byte get(int index) {
+        return number.getDigit(index);
+    }
+
+    @Override
+    public byte getDigit(int index) {
+        return number.getDigit(index);
+    }
+
+    @Override
+    public Byte set(int index, Byte element) {
+        Byte old = number.set(index, element);
+        journal(SET, index, element);
+        return old;
+    }
+
+    @Override
+    public void setDigit(int index, byte digit) {
+        number.setDigit(index, digit);
+        journal(SET, index, digit);
+    }
+
+    @Override
+    public void add(int index, Byte element) {
+        number.add(index, element);
+        journal(INSERT, index, element);
+    }
+
+    @Override
+    public void appendDigit(byte digit) {
+        number.appendDigit(digit);
+        journal(INSERT, number.size() - 1, digit);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Byte> c) {
+        Byte[] digits = c.toArray(new Byte[0]);
+        number.addAll(index, Arrays.asList(digits));
+        for (int i = 0; i < digits.length; i++)
+            journal(INSERT, index + i, digits[i]);
+        return digits.length > 0;
+    }
+
+    @Override
+    public Byte remove(int index) {
+        Byte old = number.remove(index);
+        journal(REMOVE, index, (byte) 0);
+        return old;
+    }
+
+    /**
+     * Видаляє цифри, що задовольняють умову, одним проходом по числу;
+     * у журнал записується по одному запису на кожну видалену цифру.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Byte> filter) {
+        Objects.requireNonNull(filter);
+        boolean[] removed = new boolean[size()];
+        int[] i = {0};
+        number.forEachDigit(d -> removed[i[0]++] = filter.test((byte) d));
+
+        int[] j = {0};
+        if (!number.removeIf(d -> removed[j[0]++])) return false;
+        for (int index = removed.length - 1; index >= 0; index--)
+            if (removed[index]) journal(REMOVE, index, (byte) 0);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(d -> !c.contains(d));
+    }
+
+    @Override
+    public void clear() {
+        number.clear();
+        journal(CLEAR, 0, (byte) 0);
+    }
+
+    /**
+     * Повертає ітератор по цифрах числа. Ітератор не підтримує видалення;
+     * для видалення використовуйте {@link #removeIf(Predicate)} або {@link #remove(int)}.
+     */
+    @Override
+    public Iterator<Byte> iterator() {
+        DigitCursor cursor = number.digitCursor();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public Byte next() {
+                if (!cursor.hasNext()) throw new NoSuchElementException();
+                return cursor.nextDigit();
+            }
+        };
+    }
+
+    @Override
+    public void forEachDigit(IntConsumer action) {
+        number.forEachDigit(action);
+    }
+
+    @Override
+    public boolean swap(int index1, int index2) {
+        if (!number.swap(index1, index2)) return false;
+        journal(SET, index1, number.getDigit(index1));
+        journal(SET, index2, number.getDigit(index2));
+        return true;
+    }
+
+    @Override
+    public void sortAscending() {
+        number.sortAscending();
+        journal(SORT_ASCENDING, 0, (byte) 0);
+    }
+
+    @Override
+    public void sortDescending() {
+        number.sortDescending();
+        journal(SORT_DESCENDING, 0, (byte) 0);
+    }
+
+    @Override
+    public void shiftLeft() {
+        number.shiftLeft();
+        journal(SHIFT_LEFT, 0, (byte) 0);
+    }
+
+    @Override
+    public void shiftRight() {
+        number.shiftRight();
+        journal(SHIFT_RIGHT, 0, (byte) 0);
+    }
+
+    @Override
+    public void reverse() {
+        number.reverse();
+        journal(REVERSE, 0, (byte) 0);
+    }
+
+    @Override
+    public String toString() {
+        return number.toString();
+    }
+}
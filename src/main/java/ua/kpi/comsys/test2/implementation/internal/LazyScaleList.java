@@ -0,0 +1,250 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+import ua.kpi.comsys.test2.DigitCursor;
+import ua.kpi.comsys.test2.NumberList;
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Ліниве представлення числа в іншій системі числення.
+ * <p>
+ * Повне перетворення виконується лише тоді, коли без нього не обійтися:
+ * <ul>
+ *     <li>{@link #size()} обчислюється з оцінки порядку величини числа
+ *     за старшими цифрами; перетворення потрібне лише у рідкісних випадках,
+ *     коли число лежить впритул до степеня нової основи;</li>
+ *     <li>молодші цифри (стільки, скільки вміщує {@code long})
+ *     обчислюються одним проходом по вихідних цифрах — діленням з остачею
+ *     на степінь нової основи;</li>
+ *     <li>доступ до старших цифр, обхід та будь-яка зміна спочатку виконують
+ *     повне перетворення, після чого всі операції делегуються його результату.</li>
+ * </ul>
+ * Представлення зберігає власну копію вихідних цифр,
+ * тому подальші зміни вихідного числа на нього не впливають.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class LazyScaleList extends AbstractList<Byte> implements NumberList {
+
+    /** Межа точного представлення цілих у double: старші цифри збираються, доки значення менше. */
+    private static final double MANTISSA_LIMIT = 0x1p53;
+
+    private final byte[] source;
+    private final int sourceBase;
+    private final int targetBase;
+
+    /** Індекс першої ненульової цифри у {@link #source}. */
+    private final int start;
+
+    /** Довжина числа у новій основі; -1, доки не обчислена. */
+    private int length = -1;
+
+    /** Молодші цифри у новій основі, від наймолодшої; {@code null}, доки не обчислені. */
+    private byte[] lowDigits;
+
+    private NumberListImpl materialized;
+
+    /**
+     * Створює ліниве представлення числа у новій основі.
+     *
+     * @param source     число у вихідній основі
+     * @param targetBase нова основа системи числення
+     */
+    public LazyScaleList(NumberListImpl source, int targetBase) {
+        this.source = source.toByteArray();
+        this.sourceBase = source.getBase();
+        this.targetBase = targetBase;
+
+        int s = 0;
+        while (s < this.source.length && this.source[s] == 0) s++;
+        this.start = s;
+    }
+
+    /**
+     * Виконує (за потреби) повне перетворення і повертає його результат.
+     *
+     * @return число у новій основі
+     */
+    public NumberListImpl materialize() {
+        if (materialized == null) {
+            materialized = BaseConverter.convert(NumberListImpl.fromDigits(source, sourceBase), targetBase);
+            length = materialized.size();
+            lowDigits = null;
+        }
+        return materialized;
+    }
+
+    /**
+     * Перевіряє, чи вже виконане повне перетворення.
+     *
+     * @return true, якщо цифри числа у новій основі вже обчислені повністю
+     */
+    public boolean isMaterialized() {
+        return materialized != null;
+    }
+
+    @Override
+    public int size() {
+        if (materialized != null) return materialized.size();
+        if (length < 0) length = estimateLength();
+        return length;
+    }
+
+    @Override
+    public Byte get(int index) {
+        return getDigit(index);
+    }
+
+    @Override
+    public byte getDigit(int index) {
+        int size = size();
+        if (materialized == null) {
+            Objects.checkIndex(index, size);
+
+            int fromEnd = size - 1 - index;
+            byte[] low = lowDigits();
+            if (fromEnd < low.length) return low[fromEnd];
+        }
+        return materialize().getDigit(index);
+    }
+
+    /**
+     * Обчислює довжину числа у новій основі: {@code floor(log_t N) + 1}.
+     * Логарифм оцінюється за старшими цифрами з гарантованими межами похибки;
+     * якщо межі не визначають довжину однозначно, виконується повне перетворення.
+     */
+    private int estimateLength() {
+        int n = source.length - start;
+        if (n == 0) return 0;
+
+        double lead = 0;
+        int m = 0;
+        while (m < n && lead * sourceBase + sourceBase <= MANTISSA_LIMIT)
+            lead = lead * sourceBase + source[start + m++];
+
+        if (m == n) {
+            long value = (long) lead;
+            int len = 0;
+            for (; value > 0; value /= targetBase) len++;
+            return len;
+        }
+
+        // N лежить у [lead * B^k, (lead + 1) * B^k)
+        int k = n - m;
+        double scale = k * Math.log(sourceBase);
+        double lnT = Math.log(targetBase);
+        double lo = (Math.log(lead) + scale) / lnT;
+        double hi = (Math.log(lead + 1) + scale) / lnT;
+        double guard = 1e-9 * Math.max(1, hi);
+
+        double floorLo = Math.floor(lo - guard);
+        if (floorLo == Math.floor(hi + guard))
+            return (int) floorLo + 1;
+
+        return materialize().size();
+    }
+
+    /**
+     * Обчислює остачу від ділення числа на {@code t^M} одним проходом
+     * (схема Горнера за модулем) і розкладає її на M молодших цифр.
+     */
+    private byte[] lowDigits() {
+        if (lowDigits != null) return lowDigits;
+
+        long modulus = 1;
+        int count = 0;
+        while (modulus <= Long.MAX_VALUE / targetBase / sourceBase) {
+            modulus *= targetBase;
+            count++;
+        }
+
+        long rest = 0;
+        for (int i = start; i < source.length; i++)
+            rest = (rest * sourceBase + source[i]) % modulus;
+
+        byte[] low = new byte[Math.min(count, size())];
+        for (int j = 0; j < low.length; j++) {
+            low[j] = (byte) (rest % targetBase);
+            rest /= targetBase;
+        }
+        return lowDigits = low;
+    }
+
+    @Override
+    public Byte set(int index, Byte element) {
+        return materialize().set(index, element);
+    }
+
+    @Override
+    public void add(int index, Byte element) {
+        materialize().add(index, element);
+    }
+
+    @Override
+    public Byte remove(int index) {
+        return materialize().remove(index);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+    @Override
+    public Iterator<Byte> iterator() {
+        return materialize().iterator();
+    }
+
+    @Override
+    public ListIterator<Byte> listIterator(int index) {
+        return materialize().listIterator(index);
+    }
+
+    @Override
+    public DigitCursor digitCursor() {
+        return materialize().digitCursor();
+    }
+
+    @Override
+    public void forEachDigit(IntConsumer action) {
+        materialize().forEachDigit(action);
+    }
+
+    @Override
+    public boolean swap(int index1, int index2) {
+        return materialize().swap(index1, index2);
+    }
+
+    @Override
+    public void sortAscending() {
+        materialize().sortAscending();
+    }
+
+    @Override
+    public void sortDescending() {
+        materialize().sortDescending();
+    }
+
+    @Override
+    public void shiftLeft() {
+        materialize().shiftLeft();
+    }
+
+    @Override
+    public void shiftRight() {
+        materialize().shiftRight();
+    }
+
+    @Override
+    public String toString() {
+        return materialize().toString();
+    }
+}
@@ -0,0 +1,240 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ua.kpi.comsys.test2.NumberList;
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Потокова обробка файлів з багатьма десятковими числами (по одному в рядку).
+ * <p>
+ * Кожне число перетворюється у трійкову систему числення, над ним виконується
+ * AND з маскою ({@link BitwiseAndOperation}), а результат записується у вихідний
+ * файл у десятковому вигляді в тому ж порядку, що й у вхідному файлі.
+ * <p>
+ * Обробка складається з трьох етапів, з'єднаних обмеженими чергами:
+ * <ul>
+ *     <li>читання рядків;</li>
+ *     <li>паралельне перетворення та операція AND на {@code workers} потоках;</li>
+ *     <li>впорядкований запис результатів.</li>
+ * </ul>
+ * Кількість чисел, що одночасно перебувають в обробці (у чергах, в обробниках
+ * та у буфері впорядкування), не перевищує {@code window}, тому пам'ять обмежена
+ * незалежно від розміру файлу: читання призупиняється, доки записувач не звільнить місце.
+ * <p>
+ * Некоректні рядки (нечислові або відʼємні) записуються як порожні рядки,
+ * аналогічно до конструктора {@link NumberListImpl#NumberListImpl(String)}.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class NumberPipeline {
+
+    /**
+     * Підсумок обробки файлу.
+     *
+     * @param numbers      кількість оброблених чисел
+     * @param invalid      кількість некоректних рядків
+     * @param bytesRead    розмір вхідного файлу в байтах
+     * @param bytesWritten розмір вихідного файлу в байтах
+     * @param nanos        тривалість обробки в наносекундах
+     */
+    public record Report(long numbers, long invalid, long bytesRead, long bytesWritten, long nanos) {
+
+        /**
+         * Повертає пропускну здатність у числах за секунду.
+         *
+         * @return кількість чисел за секунду
+         */
+        public double numbersPerSecond() {
+            return numbers / seconds();
+        }
+
+        /**
+         * Повертає пропускну здатність читання у мегабайтах (10^6 байт) за секунду.
+         *
+         * @return кількість мегабайт вхідного файлу за секунду
+         */
+        public double megabytesPerSecond() {
+            return bytesRead / 1e6 / seconds();
+        }
+
+        private double seconds() {
+            return Math.max(nanos, 1) / 1e9;
+        }
+    }
+
+    private record Item(long seq, String text) {
+    }
+
+    /** Ознака кінця потоку елементів у черзі. */
+    private static final Item END = new Item(-1, null);
+
+    private final NumberListImpl maskBinary;
+    private final int workers;
+    private final int window;
+
+    /**
+     * Створює конвеєр з кількістю обробників, що дорівнює кількості процесорів,
+     * та вікном у 1024 числа.
+     *
+     * @param mask маска для операції AND
+     */
+    public NumberPipeline(NumberList mask) {
+        this(mask, Runtime.getRuntime().availableProcessors(), 1024);
+    }
+
+    /**
+     * Створює конвеєр.
+     *
+     * @param mask    маска для операції AND
+     * @param workers кількість паралельних обробників
+     * @param window  максимальна кількість чисел, що одночасно перебувають в обробці
+     * @throws IllegalArgumentException якщо {@code workers} або {@code window} не додатні
+     */
+    public NumberPipeline(NumberList mask, int workers, int window) {
+        if (workers < 1)
+            throw new IllegalArgumentException("Invalid number of workers: " + workers);
+        if (window < 1)
+            throw new IllegalArgumentException("Invalid window: " + window);
+
+        this.maskBinary = BitwiseAndOperation.toBinary(mask);
+        this.workers = workers;
+        this.window = window;
+    }
+
+    /**
+     * Обробляє всі числа вхідного файлу і записує результати у вихідний файл.
+     * Вихідний файл перезаписується; у разі помилки він може бути записаний частково.
+     *
+     * @param input  файл з десятковими числами, по одному в рядку
+     * @param output файл для результатів
+     * @return підсумок обробки
+     * @throws IOException якщо файл не може бути прочитаний або записаний
+     */
+    public Report process(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+
+        BlockingQueue<Item> work = new ArrayBlockingQueue<>(window + workers);
+        BlockingQueue<Item> done = new ArrayBlockingQueue<>(window + workers);
+        Semaphore inFlight = new Semaphore(window);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long[] counters = new long[3];
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Runnable onFailure = executor::shutdownNow;
+
+            executor.execute(stage(failure, onFailure, () -> read(input, work, inFlight)));
+            for (int i = 0; i < workers; i++)
+                executor.execute(stage(failure, onFailure, () -> work(work, done)));
+            executor.execute(stage(failure, onFailure, () -> write(output, done, inFlight, counters)));
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof IOException e) throw e;
+        if (t instanceof UncheckedIOException e) throw e.getCause();
+        if (t instanceof RuntimeException e) throw e;
+        if (t instanceof Error e) throw e;
+        if (t != null) throw new IllegalStateException(t);
+
+        return new Report(counters[0], counters[1], Files.size(input), counters[2], System.nanoTime() - start);
+    }
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    /** Запам'ятовує першу помилку етапу і зупиняє решту етапів. */
+    private static Runnable stage(AtomicReference<Throwable> failure, Runnable onFailure, Stage body) {
+        return () -> {
+            try {
+                body.run();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                onFailure.run();
+            }
+        };
+    }
+
+    private void read(Path input, BlockingQueue<Item> work, Semaphore inFlight)
+            throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            long seq = 0;
+            for (String line; (line = reader.readLine()) != null; ) {
+                inFlight.acquire();
+                work.put(new Item(seq++, line.strip()));
+            }
+        }
+
+        for (int i = 0; i < workers; i++)
+            work.put(END);
+    }
+
+    private void work(BlockingQueue<Item> work, BlockingQueue<Item> done) throws InterruptedException {
+        for (Item item; (item = work.take()) != END; )
+            done.put(new Item(item.seq(), transform(item.text())));
+        done.put(END);
+    }
+
+    /** Повертає десятковий результат AND для числа або {@code null}, якщо рядок некоректний. */
+    private String transform(String decimal) {
+        if (!isDecimal(decimal)) return null;
+
+        NumberListImpl number = new NumberListImpl(decimal);
+        return BitwiseAndOperation.and(BitwiseAndOperation.toBinary(number), maskBinary).toDecimalString();
+    }
+
+    private static boolean isDecimal(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++)
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') return false;
+        return true;
+    }
+
+    private void write(Path output, BlockingQueue<Item> done, Semaphore inFlight, long[] counters)
+            throws IOException, InterruptedException {
+        Map<Long, String> pending = new HashMap<>();
+        long next = 0;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            for (int finished = 0; finished < workers; ) {
+                Item item = done.take();
+                if (item == END) {
+                    finished++;
+                    continue;
+                }
+
+                pending.put(item.seq(), item.text());
+                while (pending.containsKey(next)) {
+                    String text = pending.remove(next++);
+                    if (text == null) {
+                        counters[1]++;
+                        text = "";
+                    } else {
+                        counters[0]++;
+                    }
+                    writer.write(text);
+                    writer.newLine();
+                    counters[2] += text.length() + System.lineSeparator().length();
+                    inFlight.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Подія Java Flight Recorder для додаткової операції над двома числами.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+@Name("ua.kpi.comsys.test2.Operation")
+@Label("Number Operation")
+@Category({"NumberList", "Operation"})
+@Description("Additional operation over two numbers")
+@StackTrace(false)
+public class OperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Base")
+    public int base;
+
+    @Label("Left Digits")
+    public int leftDigits;
+
+    @Label("Right Digits")
+    public int rightDigits;
+
+    @Label("Result Digits")
+    public int resultDigits;
+}
@@ -0,0 +1,236 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Незмінне представлення числа у вигляді «широких» слів (limbs).
+ * <p>
+ * Кожне слово типу {@code long} зберігає {@code k} цифр основи {@code base},
+ * тобто є цифрою за основою {@code base^k} — найбільшим степенем, що вміщується
+ * у {@code long} (62 двійкові цифри, 39 трійкових, 20 вісімкових тощо).
+ * Порівняння, побітове AND та перетворення виконуються над цілими словами,
+ * а поцифровий вигляд {@link #digits()} обчислюється ліниво.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public final class PackedNumber implements Comparable<PackedNumber> {
+
+    private final int base;
+
+    /** Кількість цифр в одному слові. */
+    private final int digitsPerLimb;
+
+    /** Слова від молодшого до старшого. */
+    private final long[] limbs;
+
+    /** Кількість цифр разом із провідними нулями. */
+    private final int length;
+
+    /** {@code radix[p] = base^p} для {@code p < digitsPerLimb}. */
+    private final long[] radix;
+
+    private PackedNumber(int base, int digitsPerLimb, long[] limbs, int length) {
+        this.base = base;
+        this.digitsPerLimb = digitsPerLimb;
+        this.limbs = limbs;
+        this.length = length;
+
+        this.radix = new long[digitsPerLimb];
+        long p = 1;
+        for (int i = 0; i < digitsPerLimb; i++) {
+            radix[i] = p;
+            if (i + 1 < digitsPerLimb) p *= base;
+        }
+    }
+
+    /**
+     * Пакує цифри числа у слова.
+     *
+     * @param digits цифри від старшої до молодшої
+     * @param base основа системи числення цифр
+     * @return упаковане число тієї ж довжини
+     */
+    public static PackedNumber pack(byte[] digits, int base) {
+        BigIntegerCodec codec = new BigIntegerCodec(base);
+        return new PackedNumber(base, codec.digitsPerWord(), codec.toWords(digits), digits.length);
+    }
+
+    /**
+     * Створює упаковане число за значенням.
+     *
+     * @param value невідʼємне значення
+     * @param base основа системи числення цифр
+     * @return упаковане число без провідних нулів
+     */
+    public static PackedNumber of(BigInteger value, int base) {
+        BigIntegerCodec codec = new BigIntegerCodec(base);
+        long[] limbs = codec.toWords(value);
+        PackedNumber packed = new PackedNumber(base, codec.digitsPerWord(), limbs, 0);
+        return new PackedNumber(base, packed.digitsPerLimb, limbs, packed.significantDigits());
+    }
+
+    /**
+     * Повертає основу системи числення цифр.
+     *
+     * @return основа системи числення
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Повертає кількість цифр разом із провідними нулями.
+     *
+     * @return кількість цифр
+     */
+    public int size() {
+        return length;
+    }
+
+    /**
+     * Повертає кількість слів, якими представлене число.
+     *
+     * @return кількість слів
+     */
+    public int limbCount() {
+        return limbs.length;
+    }
+
+    /**
+     * Повертає цифру за індексом, рахуючи від старшої.
+     *
+     * @param index індекс цифри
+     * @return цифра
+     * @throws IndexOutOfBoundsException якщо індекс поза межами
+     */
+    public byte digit(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+
+        int fromLow = length - 1 - index;
+        int limb = fromLow / digitsPerLimb;
+        if (limb >= limbs.length) return 0;
+        return (byte) (limbs[limb] / radix[fromLow % digitsPerLimb] % base);
+    }
+
+    /**
+     * Повертає ліниве поцифрове представлення числа (від старшої цифри).
+     *
+     * @return незмінний список цифр
+     */
+    public List<Byte> digits() {
+        return new AbstractList<>() {
+            @Override
+            public Byte get(int index) {
+                return digit(index);
+            }
+
+            @Override
+            public int size() {
+                return length;
+            }
+        };
+    }
+
+    /**
+     * Розпаковує цифри числа.
+     *
+     * @return цифри від старшої до молодшої
+     */
+    public byte[] toByteArray() {
+        byte[] digits = new byte[length];
+        int pos = length;
+        for (int i = 0; i < limbs.length && pos > 0; i++) {
+            long limb = limbs[i];
+            for (int d = 0; d < digitsPerLimb && pos > 0; d++) {
+                digits[--pos] = (byte) (limb % base);
+                limb /= base;
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * Обчислює значення числа.
+     *
+     * @return значення числа
+     */
+    public BigInteger toBigInteger() {
+        return new BigIntegerCodec(base).fromWords(limbs);
+    }
+
+    /**
+     * Обчислює побітове AND двох двійкових чисел пословно.
+     * Результат має довжину довшого операнда.
+     *
+     * @param other другий операнд
+     * @return результат операції
+     * @throws IllegalArgumentException якщо хоча б один операнд не двійковий
+     */
+    public PackedNumber and(PackedNumber other) {
+        if (base != 2 || other.base != 2)
+            throw new IllegalArgumentException("AND requires binary operands");
+
+        long[] result = new long[Math.min(limbs.length, other.limbs.length)];
+        for (int i = 0; i < result.length; i++)
+            result[i] = limbs[i] & other.limbs[i];
+        return new PackedNumber(2, digitsPerLimb, result, Math.max(length, other.length));
+    }
+
+    /**
+     * Порівнює значення двох чисел однієї системи числення пословно.
+     * Провідні нулі не враховуються.
+     *
+     * @param other число для порівняння
+     * @return відʼємне, нуль або додатне значення
+     * @throws IllegalArgumentException якщо основи чисел різні
+     */
+    @Override
+    public int compareTo(PackedNumber other) {
+        if (base != other.base)
+            throw new IllegalArgumentException("Different bases: " + base + " and " + other.base);
+
+        int top = topLimb();
+        int otherTop = other.topLimb();
+        if (top != otherTop) return Integer.compare(top, otherTop);
+
+        for (int i = top; i >= 0; i--)
+            if (limbs[i] != other.limbs[i]) return Long.compare(limbs[i], other.limbs[i]);
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PackedNumber p && base == p.base && compareTo(p) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = base;
+        for (int i = topLimb(); i >= 0; i--)
+            h = 31 * h + Long.hashCode(limbs[i]);
+        return h;
+    }
+
+    /** Індекс старшого ненульового слова; {@code -1} для нуля. */
+    private int topLimb() {
+        int top = limbs.length - 1;
+        while (top >= 0 && limbs[top] == 0) top--;
+        return top;
+    }
+
+    /** Кількість цифр без провідних нулів. */
+    private int significantDigits() {
+        int top = topLimb();
+        if (top < 0) return 0;
+
+        int digits = top * digitsPerLimb;
+        for (long v = limbs[top]; v > 0; v /= base) digits++;
+        return digits;
+    }
+}
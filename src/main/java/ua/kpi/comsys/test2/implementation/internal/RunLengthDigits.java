@@ -0,0 +1,296 @@
+package ua.kpi.comsys.test2.implementation.internal;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Стиснене представлення цифр числа у вигляді серій однакових цифр.
+ * <p>
+ * Зберігаються лише цифра кожної серії та накопичена довжина серій
+ * (індекс кінця серії), тому пам'ять пропорційна кількості серій, а не цифр.
+ * Доступ до цифри за позицією виконується двійковим пошуком за O(log серій);
+ * зміна цифри розбиває або зливає щонайбільше сусідні серії.
+ * <p>
+ * Перетворення у {@link BigInteger} та побітове AND обробляють серію
+ * цілком, не перебираючи її цифри, тож добре підходять для чисел
+ * з довгими послідовностями нулів або одиниць.
+ *
+ *
+ * @author Андрій Шевчук
+ * @group  ІС-31
+ * @recordBookNumber 26
+ */
+public class RunLengthDigits {
+
+    private final int base;
+
+    /** Цифра кожної серії, від старшої серії до молодшої. */
+    private byte[] digits = new byte[8];
+
+    /** {@code ends[r]} — позиція одразу після кінця серії {@code r}. */
+    private int[] ends = new int[8];
+
+    private int runs = 0;
+
+    /**
+     * Створює порожнє представлення.
+     *
+     * @param base основа системи числення цифр
+     */
+    public RunLengthDigits(int base) {
+        this.base = base;
+    }
+
+    /**
+     * Стискає масив цифр.
+     *
+     * @param digits цифри від старшої до молодшої
+     * @param base   основа системи числення цифр
+     * @return стиснене представлення
+     */
+    public static RunLengthDigits encode(byte[] digits, int base) {
+        RunLengthDigits result = new RunLengthDigits(base);
+        for (byte d : digits)
+            result.append(d, 1);
+        return result;
+    }
+
+    /**
+     * Дописує в кінець серію однакових цифр, зливаючи її з останньою серією, якщо цифри збігаються.
+     *
+     * @param digit цифра
+     * @param count кількість повторень
+     */
+    public void append(byte digit, int count) {
+        if (count <= 0) return;
+
+        if (runs > 0 && digits[runs - 1] == digit) {
+            ends[runs - 1] += count;
+            return;
+        }
+
+        ensureCapacity(runs + 1);
+        digits[runs] = digit;
+        ends[runs] = size() + count;
+        runs++;
+    }
+
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Повертає кількість цифр.
+     *
+     * @return кількість цифр
+     */
+    public int size() {
+        return runs == 0 ? 0 : ends[runs - 1];
+    }
+
+    /**
+     * Повертає кількість серій.
+     *
+     * @return кількість серій
+     */
+    public int runCount() {
+        return runs;
+    }
+
+    /**
+     * Повертає цифру серії.
+     *
+     * @param run індекс серії
+     * @return цифра серії
+     */
+    public byte runDigit(int run) {
+        checkRun(run);
+        return digits[run];
+    }
+
+    /**
+     * Повертає довжину серії.
+     *
+     * @param run індекс серії
+     * @return кількість цифр у серії
+     */
+    public int runLength(int run) {
+        checkRun(run);
+        return ends[run] - start(run);
+    }
+
+    /**
+     * Повертає цифру за позицією за O(log серій).
+     *
+     * @param index позиція цифри
+     * @return цифра
+     * @throws IndexOutOfBoundsException якщо позиція некоректна
+     */
+    public byte get(int index) {
+        return digits[runOf(index)];
+    }
+
+    /**
+     * Замінює цифру за позицією. Пошук серії виконується за O(log серій);
+     * серія розбивається щонайбільше на три, після чого однакові сусідні серії зливаються.
+     *
+     * @param index позиція цифри
+     * @param digit нова цифра
+     * @return попередня цифра
+     * @throws IndexOutOfBoundsException якщо позиція некоректна
+     */
+    public byte set(int index, byte digit) {
+        int r = runOf(index);
+        byte old = digits[r];
+        if (old == digit) return old;
+
+        int start = start(r);
+        int end = ends[r];
+        int pieces = 1 + (index > start ? 1 : 0) + (index + 1 < end ? 1 : 0);
+
+        ensureCapacity(runs + pieces - 1);
+        System.arraycopy(digits, r + 1, digits, r + pieces, runs - r - 1);
+        System.arraycopy(ends, r + 1, ends, r + pieces, runs - r - 1);
+        runs += pieces - 1;
+
+        int p = r;
+        if (index > start) {
+            digits[p] = old;
+            ends[p++] = index;
+        }
+        digits[p] = digit;
+        ends[p++] = index + 1;
+        if (index + 1 < end) {
+            digits[p] = old;
+            ends[p] = end;
+        }
+
+        coalesce(Math.max(r - 1, 0), Math.min(r + pieces, runs - 1));
+        return old;
+    }
+
+    /**
+     * Розпаковує цифри.
+     *
+     * @return цифри від старшої до молодшої
+     */
+    public byte[] toByteArray() {
+        byte[] result = new byte[size()];
+        for (int r = 0; r < runs; r++)
+            Arrays.fill(result, start(r), ends[r], digits[r]);
+        return result;
+    }
+
+    /**
+     * Обчислює значення числа, обробляючи кожну серію цілком:
+     * серія з {@code len} цифр {@code d} має значення {@code d * (base^len - 1) / (base - 1)}.
+     * Значення серій об'єднуються методом «поділяй і владарюй».
+     *
+     * @return значення числа
+     */
+    public BigInteger toBigInteger() {
+        return runs == 0 ? BigInteger.ZERO : value(0, runs);
+    }
+
+    /** Значення серій {@code [from, to)}: {@code high * base^len(low) + low}. */
+    private BigInteger value(int from, int to) {
+        if (to - from == 1) return runValue(from);
+
+        int mid = (from + to) >>> 1;
+        BigInteger high = value(from, mid);
+        BigInteger low = value(mid, to);
+        int lowLength = ends[to - 1] - start(mid);
+
+        if (base == 2) return high.shiftLeft(lowLength).or(low);
+        return high.multiply(BigInteger.valueOf(base).pow(lowLength)).add(low);
+    }
+
+    private BigInteger runValue(int run) {
+        if (digits[run] == 0) return BigInteger.ZERO;
+
+        int len = ends[run] - start(run);
+        if (base == 2) return BigInteger.ONE.shiftLeft(len).subtract(BigInteger.ONE);
+
+        BigInteger repunit = BigInteger.valueOf(base).pow(len).subtract(BigInteger.ONE)
+            .divide(BigInteger.valueOf(base - 1));
+        return repunit.multiply(BigInteger.valueOf(digits[run]));
+    }
+
+    /**
+     * Обчислює побітове AND двох двійкових чисел, вирівнюючи їх за молодшими
+     * розрядами. Результат будується серія за серією за O(серій обох операндів).
+     *
+     * @param other другий операнд
+     * @return результат довжини довшого операнда
+     * @throws IllegalArgumentException якщо хоча б один операнд не двійковий
+     */
+    public RunLengthDigits and(RunLengthDigits other) {
+        if (base != 2 || other.base != 2)
+            throw new IllegalArgumentException("AND requires binary operands");
+
+        int length = Math.max(size(), other.size());
+        int leftPad = length - size();
+        int rightPad = length - other.size();
+
+        RunLengthDigits result = new RunLengthDigits(2);
+        int l = 0;
+        int r = 0;
+        for (int pos = 0; pos < length; ) {
+            int leftEnd = pos < leftPad ? leftPad : leftPad + ends[l];
+            int rightEnd = pos < rightPad ? rightPad : rightPad + other.ends[r];
+            int leftDigit = pos < leftPad ? 0 : digits[l];
+            int rightDigit = pos < rightPad ? 0 : other.digits[r];
+
+            int end = Math.min(leftEnd, rightEnd);
+            result.append((byte) (leftDigit & rightDigit), end - pos);
+
+            if (pos >= leftPad && end == leftEnd) l++;
+            if (pos >= rightPad && end == rightEnd) r++;
+            pos = end;
+        }
+        return result;
+    }
+
+    private int start(int run) {
+        return run == 0 ? 0 : ends[run - 1];
+    }
+
+    /** Двійковий пошук серії, що містить позицію. */
+    private int runOf(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+        int lo = 0;
+        int hi = runs - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ends[mid] <= index) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Зливає однакові сусідні серії у діапазоні {@code [from, to]}. */
+    private void coalesce(int from, int to) {
+        for (int j = to; j > from; j--) {
+            if (digits[j] != digits[j - 1]) continue;
+
+            System.arraycopy(digits, j, digits, j - 1, runs - j);
+            System.arraycopy(ends, j, ends, j - 1, runs - j);
+            runs--;
+        }
+    }
+
+    private void checkRun(int run) {
+        if (run < 0 || run >= runs)
+            throw new IndexOutOfBoundsException("Run: " + run + ", Runs: " + runs);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= digits.length) return;
+
+        int newCapacity = Math.max(capacity, digits.length * 2);
+        digits = Arrays.copyOf(digits, newCapacity);
+        ends = Arrays.copyOf(ends, newCapacity);
+    }
+}
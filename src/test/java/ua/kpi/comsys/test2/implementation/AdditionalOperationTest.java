@@ -7,9 +7,17 @@
 
 package ua.kpi.comsys.test2.implementation;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 import org.junit.After;
 import org.junit.Test;
 
+import ua.kpi.comsys.test2.NumberList;
+import ua.kpi.comsys.test2.implementation.internal.BitwiseAndOperation;
+import ua.kpi.comsys.test2.implementation.internal.JournaledNumberList;
+
 import static org.junit.Assume.assumeTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -128,6 +136,49 @@ public class AdditionalOperationTest {
         assertEquals("Additional operation implemented in a wrong way",list3,result);
     }
 
+    @Test
+    public void testANDBatch() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 7  == 5);
+
+        list1 = new NumberListImpl("15");
+        list2 = new NumberListImpl("2");
+        list3 = new NumberListImpl("6");
+
+        List<NumberListImpl> results = BitwiseAndOperation
+            .applyAll(List.of(list1, list1, list3), List.of(list2, list3, list1))
+            .join();
+
+        assertEquals("Batch operation lost results", 3, results.size());
+        assertEquals("Batch operation implemented in a wrong way", new NumberListImpl("2"), results.get(0));
+        assertEquals("Batch operation implemented in a wrong way", new NumberListImpl("6"), results.get(1));
+        assertEquals("Batch operation implemented in a wrong way", new NumberListImpl("6"), results.get(2));
+        assertEquals("Operands must stay unchanged", "15", list1.toDecimalString());
+    }
+
+    @Test
+    public void testANDMixedListTypes() throws Exception {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 7  == 5);
+
+        list1 = new NumberListImpl("15");
+        NumberList lazy = list1.changeScale(true);
+        assertEquals("Mixed operands implemented in a wrong way",
+            list1, list1.additionalOperation(lazy));
+
+        Path dir = Files.createTempDirectory("mixed");
+        try (JournaledNumberList journaled = JournaledNumberList.open(dir.resolve("number.bin"), 3)) {
+            journaled.addAll(new NumberListImpl("6"));
+            assertEquals("Mixed operands implemented in a wrong way",
+                new NumberListImpl("6"), list1.additionalOperation(journaled));
+            assertEquals("Mixed operands implemented in a wrong way", List.of(new NumberListImpl("6")),
+                BitwiseAndOperation.applyAll(List.of(lazy), List.of(journaled)).join());
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path p : files.toList()) Files.delete(p);
+            }
+            Files.delete(dir);
+        }
+    }
+
     @Test
     public void testOR() {
         assumeTrue(NumberListImpl.getRecordBookNumber() % 7  == 6);
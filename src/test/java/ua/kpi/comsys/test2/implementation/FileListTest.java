@@ -11,15 +11,26 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.After;
 import org.junit.Test;
 
+import ua.kpi.comsys.test2.implementation.internal.JournaledNumberList;
+import ua.kpi.comsys.test2.implementation.internal.NumberPipeline;
+
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
 public class FileListTest {
 
@@ -150,4 +161,171 @@ public class FileListTest {
 
         assertEquals(str, list.toDecimalString());
     }
+
+    @Test
+    public void testPipeline() throws IOException {
+        Path dir = Files.createTempDirectory("pipeline");
+        Path in = dir.resolve("in.txt");
+        Path out = dir.resolve("out.txt");
+        try {
+            Random rnd = new Random(26);
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 500; i++)
+                lines.add(new BigInteger(1 + rnd.nextInt(200), rnd).toString());
+            lines.set(17, "-5");
+            lines.set(42, "");
+            Files.write(in, lines);
+
+            NumberListImpl mask = new NumberListImpl("987654321987654321");
+            NumberPipeline.Report report = new NumberPipeline(mask, 4, 8).process(in, out);
+
+            List<String> result = Files.readAllLines(out);
+            assertEquals(lines.size(), result.size());
+            assertEquals(498, report.numbers());
+            assertEquals(2, report.invalid());
+            assertEquals(Files.size(out), report.bytesWritten());
+            assertTrue(report.numbersPerSecond() > 0);
+            assertTrue(report.megabytesPerSecond() > 0);
+
+            BigInteger m = new BigInteger("987654321987654321");
+            for (int i = 0; i < lines.size(); i++) {
+                String expected = i == 17 || i == 42 ? ""
+                    : new BigInteger(lines.get(i)).and(m).toString();
+                assertEquals("Line " + i, expected, result.get(i));
+            }
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(out);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testAsyncLoadAndSave() throws Exception {
+        NumberListImpl big = NumberListImpl.loadAsync(Path.of(FILE_BIG), 3).get();
+        assertEquals(new NumberListImpl(new File(FILE_BIG)), big);
+        assertTrue(NumberListImpl.loadAsync(Path.of(PREFIX, "sadfdsfwf"), 3).get().isEmpty());
+        assertTrue(NumberListImpl.loadAsync(Path.of(FILE_EMPTY), 8).get().isEmpty());
+
+        NumberListImpl octal = NumberListImpl.loadAsync(Path.of(FILE_227), 8).get();
+        assertEquals(8, octal.getBase());
+        assertEquals("343", octal.toString());
+
+        Path dir = Files.createTempDirectory("async");
+        try {
+            List<CompletableFuture<Void>> saves = new ArrayList<>();
+            for (int i = 0; i < 16; i++)
+                saves.add(new NumberListImpl(String.valueOf(1000 + i)).saveAsync(dir.resolve(i + ".txt")));
+            CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).get();
+
+            for (int i = 0; i < 16; i++) {
+                Path p = dir.resolve(i + ".txt");
+                assertEquals(String.valueOf(1000 + i), Files.readString(p));
+                assertEquals(String.valueOf(1000 + i), NumberListImpl.loadAsync(p, 3).get().toDecimalString());
+                Files.delete(p);
+            }
+        } finally {
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testJournaledNumber() throws Exception {
+        Path dir = Files.createTempDirectory("journal");
+        Path snapshot = dir.resolve("number.bin");
+        try {
+            JournaledNumberList number = JournaledNumberList.open(snapshot, 3);
+            for (char c : "1202210".toCharArray())
+                number.add((byte) (c - '0'));
+            number.set(0, (byte) 2);
+            number.remove(3);
+            number.add(1, (byte) 0);
+            number.shiftLeft();
+            number.removeIf(d -> d == 1);
+            assertEquals("020202", number.toString());
+            number.close();
+
+            number = JournaledNumberList.open(snapshot, 3, JournaledNumberList.Durability.WRITE);
+            assertEquals("020202", number.toString());
+            number.reverse();
+            number.swap(0, 1);
+            number.compact().get();
+            number.sortDescending();
+            number.addAll(List.of((byte) 1, (byte) 1));
+            assertEquals("22200011", number.toString());
+            assertTrue(Files.exists(dir.resolve("number.bin.1.log")));
+            assertFalse(Files.exists(dir.resolve("number.bin.0.log")));
+
+            // записи режиму WRITE переживають аварійне завершення без close()
+            Files.write(dir.resolve("number.bin.1.log"), new byte[] {1, 0, 0},
+                java.nio.file.StandardOpenOption.APPEND);
+            JournaledNumberList recovered = JournaledNumberList.open(snapshot, 3);
+            assertEquals("22200011", recovered.toString());
+            assertEquals(new NumberListImpl(recovered.toDecimalString()).toString(), recovered.toString());
+            recovered.close();
+            number.close();
+
+            recovered = JournaledNumberList.open(snapshot, 3);
+            for (int i = 0; i < 10000; i++)
+                recovered = reopenAppend(snapshot, recovered, i);
+            assertEquals(10008, recovered.size());
+            recovered.close();
+            assertEquals(10008, JournaledNumberList.open(snapshot, 3).size());
+        } finally {
+            try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                for (Path p : files.toList()) Files.delete(p);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testJournaledCompactionFailureIsReported() throws Exception {
+        Path dir = Files.createTempDirectory("journal");
+        Path snapshot = dir.resolve("number.bin");
+        Path tmp = dir.resolve("number.bin.tmp");
+        try {
+            JournaledNumberList number = JournaledNumberList.open(snapshot, 3);
+            number.addAll(new NumberListImpl("2026"));
+
+            // каталог на місці тимчасового файлу знімка не дає записати знімок
+            Files.createDirectory(tmp);
+            CompletableFuture<Void> failed = number.compact();
+            assertTrue(failed.handle((v, e) -> e != null).join());
+            try {
+                number.sync();
+                fail("Failed compaction must be reported by sync()");
+            } catch (IOException expected) {
+            }
+            number.sync();
+
+            number.compact().handle((v, e) -> null).join();
+            try {
+                number.close();
+                fail("Failed compaction must be reported by close()");
+            } catch (IOException expected) {
+            }
+
+            Files.delete(tmp);
+            JournaledNumberList recovered = JournaledNumberList.open(snapshot, 3);
+            assertEquals("2026", recovered.toDecimalString());
+            recovered.compact().join();
+            recovered.close();
+        } finally {
+            try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                for (Path p : files.toList()) Files.delete(p);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static JournaledNumberList reopenAppend(Path snapshot, JournaledNumberList number, int i)
+            throws IOException {
+        if (i == 5000) {
+            number.close();
+            number = JournaledNumberList.open(snapshot, 3);
+        }
+        number.appendDigit((byte) (i % 3));
+        return number;
+    }
 }
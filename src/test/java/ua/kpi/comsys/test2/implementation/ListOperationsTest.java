@@ -0,0 +1,593 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.DigitCursor;
+import ua.kpi.comsys.test2.NumberList;
+import ua.kpi.comsys.test2.implementation.internal.BaseConverter;
+import ua.kpi.comsys.test2.implementation.internal.BitwiseAndOperation;
+import ua.kpi.comsys.test2.implementation.internal.LazyScaleList;
+import ua.kpi.comsys.test2.implementation.internal.PackedNumber;
+import ua.kpi.comsys.test2.implementation.internal.RunLengthDigits;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ListOperationsTest {
+    NumberListImpl list1;
+    NumberListImpl list2;
+
+    @After
+    public void tearDown() {
+        if (list1 != null) {
+            list1.clear();
+            list1 = null;
+        }
+        if (list2 != null) {
+            list2.clear();
+            list2 = null;
+        }
+    }
+
+    static NumberListImpl digits(int base, int... values) {
+        NumberListImpl list = new NumberListImpl(base);
+        for (int v : values)
+            list.add((byte) v);
+        return list;
+    }
+
+    @Test
+    public void testAddAllInMiddle() {
+        list1 = digits(3, 1, 2, 0);
+        list2 = digits(3, 2, 2);
+
+        assertTrue(list1.addAll(1, list2));
+        assertEquals("12220", list1.toString());
+        assertEquals("Argument must stay unchanged", "22", list2.toString());
+
+        assertTrue(list1.addAll(0, List.of((byte) 1)));
+        assertTrue(list1.addAll(List.of((byte) 0, (byte) 1)));
+        assertEquals("11222001", list1.toString());
+
+        assertFalse(list1.addAll(3, List.of()));
+        assertEquals(8, list1.size());
+    }
+
+    @Test
+    public void testAddAllSelf() {
+        list1 = digits(3, 1, 2);
+        list1.addAll(list1);
+        assertEquals("1212", list1.toString());
+    }
+
+    @Test
+    public void testAddAllInvalidDigitLeavesListUnchanged() {
+        list1 = digits(3, 1, 2);
+        try {
+            list1.addAll(1, List.of((byte) 1, (byte) 5));
+            fail("Digit 5 is invalid for base 3");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("12", list1.toString());
+        }
+    }
+
+    @Test
+    public void testRemoveAllRetainAll() {
+        list1 = digits(3, 1, 0, 2, 0, 1, 2, 2);
+
+        assertTrue(list1.removeAll(List.of((byte) 2)));
+        assertEquals("1001", list1.toString());
+        assertFalse(list1.removeAll(List.of((byte) 2)));
+
+        assertTrue(list1.retainAll(List.of((byte) 1)));
+        assertEquals("11", list1.toString());
+
+        assertTrue(list1.removeIf(d -> d == 1));
+        assertTrue(list1.isEmpty());
+    }
+
+    @Test
+    public void testSubListWritesThrough() {
+        list1 = digits(8, 1, 2, 3, 4, 5, 6, 7);
+
+        List<Byte> sub = list1.subList(1, 6);
+        assertEquals(List.of((byte) 2, (byte) 3, (byte) 4, (byte) 5, (byte) 6), sub);
+
+        sub.set(0, (byte) 7);
+        assertEquals("1734567", list1.toString());
+
+        List<Byte> nested = sub.subList(2, 4);
+        nested.remove(0);
+        nested.add((byte) 0);
+        assertEquals("1735067", list1.toString());
+        assertEquals(5, sub.size());
+        assertEquals(List.of((byte) 5, (byte) 0), nested);
+
+        try {
+            sub.set(0, (byte) 9);
+            fail("Digit 9 is invalid for base 8");
+        } catch (IllegalArgumentException expected) {
+            assertEquals((byte) 7, (byte) sub.get(0));
+        }
+
+        list1.add((byte) 1);
+        try {
+            sub.size();
+            fail("View must be invalidated by structural change of the list");
+        } catch (ConcurrentModificationException expected) {
+        }
+    }
+
+    @Test
+    public void testByteArrayRoundTrip() {
+        list1 = NumberListImpl.fromDigits(new byte[] {2, 0, 1}, 3);
+        assertEquals("201", list1.toString());
+        assertArrayEquals(new byte[] {2, 0, 1}, list1.toByteArray());
+
+        assertEquals(List.of((byte) 2, (byte) 0, (byte) 1), new ArrayList<>(list1));
+        assertArrayEquals(new Byte[] {2, 0, 1, null, 9}, list1.toArray(new Byte[] {9, 9, 9, 9, 9}));
+        Object[] objects = list1.toArray();
+        assertArrayEquals(new Object[] {(byte) 2, (byte) 0, (byte) 1}, objects);
+        assertEquals(Object[].class, objects.getClass());
+        objects[0] = "not a digit";
+
+        try {
+            NumberListImpl.fromDigits(new byte[] {1, 3}, 3);
+            fail("Digit 3 is invalid for base 3");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            NumberListImpl.fromDigits(new byte[] {-1}, 3);
+            fail("Digit -1 is invalid for base 3");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testPrimitiveDigitAccess() {
+        list1 = new NumberListImpl(3);
+        list1.appendDigit((byte) 2);
+        list1.appendDigit((byte) 1);
+        list1.setDigit(1, (byte) 0);
+        assertEquals(2, list1.getDigit(0));
+        assertEquals("20", list1.toString());
+
+        int[] sum = new int[1];
+        list1.forEachDigit(d -> sum[0] += d);
+        assertEquals(2, sum[0]);
+
+        DigitCursor cursor = list1.digitCursor();
+        assertEquals(2, cursor.nextDigit());
+        cursor.setDigit((byte) 1);
+        assertEquals(0, cursor.nextDigit());
+        assertFalse(cursor.hasNext());
+        assertEquals("10", list1.toString());
+
+        try {
+            list1.appendDigit((byte) 3);
+            fail("Digit 3 is invalid for base 3");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(2, list1.size());
+        }
+    }
+
+    @Test
+    public void testParallelDigitStream() {
+        list1 = new NumberListImpl(8);
+        long expected = 0;
+        for (int i = 0; i < 100_000; i++) {
+            list1.appendDigit((byte) (i % 8));
+            expected += i % 8;
+        }
+
+        assertEquals(expected, list1.digitStream().parallel().asLongStream().sum());
+        assertEquals(expected, list1.parallelStream().mapToLong(Byte::longValue).sum());
+        assertEquals(100_000, list1.digitStream().parallel().count());
+        assertEquals(list1.toString(), list1.stream().parallel()
+            .map(String::valueOf).collect(Collectors.joining()));
+    }
+
+    @Test
+    public void testDigitStreamDetectsModification() {
+        list1 = digits(3, 1, 2, 0, 1, 2);
+        list1.setNodePoolCapacity(8);
+        try {
+            list1.digitStream().forEach(d -> {
+                list1.remove(0);
+                list1.add((byte) 0);
+            });
+            fail("Modification during traversal must be detected");
+        } catch (ConcurrentModificationException expected) {
+        }
+        assertEquals("20120", list1.toString());
+    }
+
+    @Test
+    public void testDigitIndexFollowsMutations() {
+        list1 = digits(3, 1, 0, 1, 1, 0);
+
+        assertFalse(list1.contains((byte) 2));
+        assertEquals(1, list1.indexOf((byte) 0));
+        assertEquals(4, list1.lastIndexOf((byte) 0));
+        assertEquals(-1, list1.indexOf((byte) 2));
+
+        list1.set(3, (byte) 2);
+        assertTrue(list1.contains((byte) 2));
+        assertEquals(3, list1.indexOf((byte) 2));
+
+        list1.add(0, (byte) 2);
+        assertEquals(0, list1.indexOf((byte) 2));
+        assertEquals(4, list1.lastIndexOf((byte) 2));
+
+        DigitCursor cursor = list1.digitCursor();
+        cursor.nextDigit();
+        cursor.setDigit((byte) 0);
+        assertEquals(0, list1.indexOf((byte) 0));
+        list1.removeAll(List.of((byte) 0));
+        assertFalse(list1.contains((byte) 0));
+        assertEquals("112", list1.toString());
+        assertEquals(2, list1.indexOf((byte) 2));
+        assertEquals(1, list1.lastIndexOf((byte) 1));
+
+        list1.addAll(1, List.of((byte) 0, (byte) 0));
+        assertEquals(2, list1.lastIndexOf((byte) 0));
+
+        list1.clear();
+        assertFalse(list1.contains((byte) 1));
+    }
+
+    @Test
+    public void testShiftsAndNodePool() {
+        list1 = digits(3, 1, 0, 2);
+        list1.setNodePoolCapacity(4);
+
+        list1.shiftLeft();
+        assertEquals("021", list1.toString());
+        list1.shiftRight();
+        list1.shiftRight();
+        assertEquals("210", list1.toString());
+
+        for (int i = 0; i < 10; i++) {
+            list1.remove(1);
+            list1.add(1, (byte) 1);
+        }
+        assertEquals("210", list1.toString());
+
+        list1.clear();
+        list1.add((byte) 2);
+        list1.add(0, (byte) 1);
+        assertEquals("12", list1.toString());
+        assertEquals(0, list1.indexOf((byte) 1));
+    }
+
+    @Test
+    public void testDecimalFollowsAppends() {
+        list1 = new NumberListImpl(3);
+        assertEquals("0", list1.toDecimalString());
+
+        BigInteger expected = BigInteger.ZERO;
+        Random rnd = new Random(26);
+        for (int i = 0; i < 500; i++) {
+            byte d = (byte) rnd.nextInt(3);
+            list1.add(d);
+            expected = expected.multiply(BigInteger.valueOf(3)).add(BigInteger.valueOf(d));
+            if (i % 37 == 0)
+                assertEquals(expected.toString(), list1.toDecimalString());
+        }
+        list1.addAll(List.of((byte) 2, (byte) 1));
+        expected = expected.multiply(BigInteger.valueOf(9)).add(BigInteger.valueOf(7));
+        assertEquals(expected.toString(), list1.toDecimalString());
+
+        byte first = list1.set(0, (byte) 0);
+        assertEquals(expected.subtract(BigInteger.valueOf(3).pow(501).multiply(BigInteger.valueOf(first))).toString(),
+            list1.toDecimalString());
+        list1.set(0, first);
+        list1.shiftLeft();
+        list1.shiftRight();
+        assertEquals(expected.toString(), list1.toDecimalString());
+        assertEquals(expected.toString(), new NumberListImpl(expected.toString()).toDecimalString());
+    }
+
+    @Test
+    public void testPackedRepresentation() {
+        Random rnd = new Random(26);
+        for (int base : new int[] {2, 3, 8, 10, 16}) {
+            byte[] raw = new byte[1000];
+            for (int i = 1; i < raw.length; i++)
+                raw[i] = (byte) rnd.nextInt(base);
+            list1 = NumberListImpl.fromDigits(raw, base);
+
+            PackedNumber packed = list1.toPacked();
+            assertEquals(raw.length, packed.size());
+            assertTrue(packed.limbCount() < raw.length / 10);
+            assertArrayEquals(raw, packed.toByteArray());
+            assertEquals(list1.toBigInteger(), packed.toBigInteger());
+            assertEquals(list1, NumberListImpl.fromPacked(packed));
+            assertEquals(list1.subList(0, raw.length), packed.digits());
+            assertEquals(0, packed.compareTo(PackedNumber.of(list1.toBigInteger(), base)));
+        }
+
+        PackedNumber small = digits(3, 2, 1, 0).toPacked();
+        PackedNumber large = digits(3, 0, 1, 0, 0).toPacked();
+        assertTrue(small.compareTo(large) > 0);
+        assertTrue(large.compareTo(small) < 0);
+
+        BigInteger a = new BigInteger(700, rnd);
+        BigInteger b = new BigInteger(300, rnd);
+        PackedNumber and = PackedNumber.of(a, 2).and(PackedNumber.of(b, 2));
+        assertEquals(a.and(b), and.toBigInteger());
+        assertEquals(a.bitLength(), and.size());
+    }
+
+    @Test
+    public void testReverse() {
+        list1 = digits(3, 1, 2, 0, 0, 2, 1, 1);
+        list1.reverse();
+        assertEquals("1120021", list1.toString());
+        assertEquals(2, list1.getDigit(2));
+        assertEquals(2, list1.indexOf((byte) 2));
+        assertEquals(5, list1.lastIndexOf((byte) 2));
+        assertArrayEquals(new byte[] {1, 1, 2, 0, 0, 2, 1}, list1.toByteArray());
+        assertEquals(List.of((byte) 0, (byte) 0, (byte) 2), list1.subList(3, 6));
+        assertEquals(2, list1.digitStream().filter(d -> d == 0).count());
+
+        list1.add((byte) 2);
+        list1.add(0, (byte) 0);
+        list1.remove(4);
+        assertEquals("01120212", list1.toString());
+
+        list1.shiftLeft();
+        assertEquals("11202120", list1.toString());
+        list1.shiftRight();
+        list1.removeIf(d -> d == 1);
+        assertEquals("02022", list1.toString());
+
+        list1.addAll(2, digits(3, 1, 2));
+        assertEquals("0212022", list1.toString());
+        list2 = digits(3, 2, 1);
+        list2.reverse();
+        list1.addAll(list2);
+        assertEquals("021202212", list1.toString());
+
+        list1.reverse();
+        assertEquals("212202120", list1.toString());
+        assertEquals(new BigInteger("212202120", 3).toString(), list1.toDecimalString());
+        assertEquals(list1, digits(3, 2, 1, 2, 2, 0, 2, 1, 2, 0));
+
+        NumberList generic = new LazyScaleList(digits(3, 1, 2, 0), 8);
+        generic.reverse();
+        assertEquals("71", generic.toString());
+    }
+
+    @Test
+    public void testConcatAndSplit() {
+        list1 = digits(3, 1, 2, 0);
+        list2 = digits(3, 2, 2, 1);
+        list1.indexOf((byte) 1);
+        list2.indexOf((byte) 1);
+        list1.concat(list2);
+        assertEquals("120221", list1.toString());
+        assertTrue(list2.isEmpty());
+        assertEquals(4, list1.lastIndexOf((byte) 2));
+
+        NumberListImpl reversed = digits(3, 0, 1);
+        reversed.reverse();
+        list1.concat(reversed);
+        assertEquals("12022110", list1.toString());
+
+        NumberListImpl tail = list1.splitAt(5);
+        assertEquals("12022", list1.toString());
+        assertEquals("110", tail.toString());
+        assertEquals(-1, tail.indexOf((byte) 2));
+        assertEquals(1, list1.indexOf((byte) 2));
+        assertEquals(new BigInteger("110", 3).toString(), tail.toDecimalString());
+
+        list1.reverse();
+        NumberListImpl head = list1.splitAt(1);
+        assertEquals("2", list1.toString());
+        assertEquals("2021", head.toString());
+        head.add((byte) 0);
+        assertEquals("20210", head.toString());
+
+        assertTrue(head.splitAt(5).isEmpty());
+        NumberListImpl all = head.splitAt(0);
+        assertTrue(head.isEmpty());
+        assertEquals("20210", all.toString());
+
+        try {
+            all.concat(digits(8, 7));
+            fail("Bases must match");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("20210", all.toString());
+        }
+        try {
+            all.concat(all);
+            fail("Self concatenation must be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("20210", all.toString());
+        }
+    }
+
+    @Test
+    public void testConcatWithNodePool() {
+        list1 = digits(3, 1, 2);
+        list2 = digits(3, 0, 2, 1);
+        list2.setNodePoolCapacity(16);
+        list2.remove(0);
+        list2.add(0, (byte) 0);
+
+        list1.concat(list2);
+        assertEquals("12021", list1.toString());
+        assertTrue(list2.isEmpty());
+
+        list2.add((byte) 2);
+        list2.add((byte) 1);
+        assertEquals("21", list2.toString());
+        assertEquals("12021", list1.toString());
+        list1.shiftRight();
+        assertEquals("11202", list1.toString());
+    }
+
+    @Test
+    public void testRunLengthDigits() {
+        list1 = digits(3, 1, 1, 0, 0, 0, 0, 2, 2, 1);
+        RunLengthDigits runs = list1.toRunLength();
+        assertEquals(9, runs.size());
+        assertEquals(4, runs.runCount());
+        assertEquals(0, runs.get(5));
+        assertEquals(2, runs.get(7));
+
+        assertEquals(0, runs.set(3, (byte) 2));
+        assertEquals(6, runs.runCount());
+        assertEquals(1, runs.set(8, (byte) 2));
+        assertEquals(5, runs.runCount());
+        runs.set(2, (byte) 1);
+        runs.set(4, (byte) 1);
+        runs.set(5, (byte) 1);
+        assertEquals(4, runs.runCount());
+        assertArrayEquals(new byte[] {1, 1, 1, 2, 1, 1, 2, 2, 2}, runs.toByteArray());
+        assertEquals(new BigInteger("111211222", 3), runs.toBigInteger());
+        assertEquals("111211222", NumberListImpl.fromRunLength(runs).toString());
+
+        Random rnd = new Random(26);
+        byte[] left = new byte[3000];
+        byte[] right = new byte[2000];
+        for (byte[] bits : new byte[][] {left, right})
+            for (int i = 0; i < bits.length; ) {
+                byte b = (byte) rnd.nextInt(2);
+                for (int n = 1 + rnd.nextInt(100); n > 0 && i < bits.length; n--) bits[i++] = b;
+            }
+        RunLengthDigits l = RunLengthDigits.encode(left, 2);
+        RunLengthDigits r = RunLengthDigits.encode(right, 2);
+        RunLengthDigits and = l.and(r);
+        assertEquals(3000, and.size());
+        assertEquals(l.toBigInteger().and(r.toBigInteger()), and.toBigInteger());
+        assertEquals(new BigInteger(new String(toChars(left)), 2), l.toBigInteger());
+
+        NumberListImpl sparse = NumberListImpl.fromDigits(left, 2);
+        assertEquals(sparse.toDecimalString(), sparse.changeScale().toDecimalString());
+        assertEquals(l.toBigInteger().and(r.toBigInteger()).toString(),
+            BitwiseAndOperation.apply(sparse, NumberListImpl.fromDigits(right, 2)).toDecimalString());
+    }
+
+    @Test
+    public void testCopy() {
+        list1 = digits(3, 1, 2, 0, 1);
+        list1.indexOf((byte) 2);
+        list1.reverse();
+
+        NumberListImpl copy = new NumberListImpl(list1);
+        assertEquals("1021", copy.toString());
+        assertEquals(3, copy.getBase());
+        copy.add((byte) 2);
+        assertEquals("10212", copy.toString());
+        assertEquals("1021", list1.toString());
+        assertEquals(4, copy.lastIndexOf((byte) 2));
+        assertEquals(list1, list1.clone());
+
+        NumberListImpl shared = list1.copy(true);
+        assertEquals(list1, shared);
+        shared.setDigit(0, (byte) 2);
+        assertEquals("2021", shared.toString());
+        assertEquals("1021", list1.toString());
+        list1.add((byte) 0);
+        assertEquals("10210", list1.toString());
+        assertEquals("2021", shared.toString());
+
+        list2 = digits(8, 7, 1, 3);
+        NumberListImpl snapshot = list2.copy(true);
+        list2.shiftLeft();
+        assertEquals("137", list2.toString());
+        assertEquals("713", snapshot.toString());
+        assertEquals(new BigInteger("713", 8).toString(), snapshot.toDecimalString());
+
+        NumberListImpl number = digits(3, 0, 1, 2, 0);
+        NumberListImpl before = number.copy(true);
+        DigitCursor cursor = number.digitCursor();
+        cursor.nextDigit();
+        cursor.setDigit((byte) 2);
+        assertEquals(1, cursor.nextDigit());
+        cursor.setDigit((byte) 0);
+        assertEquals(2, cursor.nextDigit());
+        assertEquals("2020", number.toString());
+        assertEquals("0120", before.toString());
+
+        List<Byte> sub = number.subList(1, 3);
+        NumberListImpl kept = number.copy(true);
+        sub.set(1, (byte) 1);
+        sub.remove(0);
+        assertEquals("210", number.toString());
+        assertEquals("2020", kept.toString());
+
+        NumberListImpl pooled = digits(3, 2, 1, 0);
+        pooled.setNodePoolCapacity(8);
+        NumberListImpl pooledCopy = pooled.copy(true);
+        pooled.remove(2);
+        pooled.add((byte) 2);
+        assertEquals("212", pooled.toString());
+        assertEquals("210", pooledCopy.toString());
+        number.addAll(pooled);
+        number.addAll(0, pooledCopy);
+        assertEquals("210210212", number.toString());
+        assertEquals("212", pooled.toString());
+    }
+
+    static class TaggedNumber extends NumberListImpl {
+        final String tag;
+
+        TaggedNumber(String tag) {
+            super(3);
+            this.tag = tag;
+        }
+    }
+
+    @Test
+    public void testCloneKeepsClass() {
+        TaggedNumber tagged = new TaggedNumber("mask");
+        tagged.add((byte) 1);
+        tagged.add((byte) 2);
+        tagged.toDecimalString();
+
+        NumberListImpl clone = tagged.clone();
+        assertTrue(clone instanceof TaggedNumber);
+        assertEquals("mask", ((TaggedNumber) clone).tag);
+        clone.add((byte) 0);
+        assertEquals("120", clone.toString());
+        assertEquals("12", tagged.toString());
+        assertEquals("15", clone.toDecimalString());
+        assertEquals("5", tagged.toDecimalString());
+    }
+
+    @Test
+    public void testSameBaseConversionDropsLeadingZeros() {
+        list1 = digits(3, 0, 0, 1, 2);
+        NumberListImpl converted = BaseConverter.convert(list1, 3);
+        assertEquals("12", converted.toString());
+        assertEquals("0012", list1.toString());
+        assertTrue(BaseConverter.convert(digits(3, 0, 0), 3).isEmpty());
+    }
+
+    private static char[] toChars(byte[] bits) {
+        char[] c = new char[bits.length];
+        for (int i = 0; i < bits.length; i++) c[i] = (char) ('0' + bits[i]);
+        return c;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.DigitCursor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Regression gate for allocation volume and asymptotic growth of key paths.
+ * <p>
+ * Allocation budgets are measured with {@link com.sun.management.ThreadMXBean},
+ * taking the minimum over several warmed-up runs. Complexity is checked as the
+ * least-squares slope of log(cost) against log(size) over sizes spanning a factor
+ * of 8, where the cost is a deterministic counter: node hops of index lookups or
+ * allocated bytes; CPU time is not gated, since it depends on the load of the machine.
+ * Most thresholds sit between the expected class and the next one. Sort and file load
+ * are not yet at their expected class, so their gates pin the known baseline
+ * ({@link #SORT_BASELINE_SLOPE}, {@link #LOAD_BASELINE_SLOPE}) to keep them from
+ * getting worse; tighten them once those paths are fixed.
+ */
+public class PerformanceRegressionTest {
+
+    /**
+     * Known baseline, not a target: sortAscending makes O(n^2) comparisons,
+     * each through an O(n) index lookup, so index steps grow as n^3.
+     */
+    static final double SORT_BASELINE_SLOPE = 3.2;
+
+    /**
+     * Known baseline, not a target: loading parses the decimal text by repeated
+     * long division, so allocation grows close to n^2.
+     */
+    static final double LOAD_BASELINE_SLOPE = 2.2;
+
+    static com.sun.management.ThreadMXBean threads;
+
+    @BeforeClass
+    public static void setUp() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    static NumberListImpl randomNumber(int digits, int base, long seed) {
+        Random rnd = new Random(seed);
+        byte[] d = new byte[digits];
+        d[0] = (byte) (1 + rnd.nextInt(base - 1));
+        for (int i = 1; i < digits; i++)
+            d[i] = (byte) rnd.nextInt(base);
+        return NumberListImpl.fromDigits(d, base);
+    }
+
+    /** Minimum number of bytes allocated by one run of the operation after warmup. */
+    static long allocatedBytes(Runnable op) {
+        for (int i = 0; i < 20; i++) op.run();
+
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            op.run();
+            min = Math.min(min, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+        return min;
+    }
+
+    /** Number of node hops made by index lookups during one run of the operation. */
+    static long indexSteps(NumberListImpl number, Consumer<NumberListImpl> op) {
+        long before = number.indexSteps();
+        op.accept(number);
+        return number.indexSteps() - before;
+    }
+
+    /** Least-squares slope of log(value) against log(size). */
+    static double slope(int[] sizes, double[] values) {
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double x = Math.log(sizes[i]);
+            double y = Math.log(values[i]);
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+        }
+        int n = sizes.length;
+        return (n * sxy - sx * sy) / (n * sxx - sx * sx);
+    }
+
+    /** Growth of the metric over one workload per size, as a log-log slope. */
+    static double growth(ToDoubleFunction<Runnable> metric, IntFunction<Runnable> workload, int... sizes) {
+        double[] values = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++)
+            values[i] = metric.applyAsDouble(workload.apply(sizes[i]));
+        return slope(sizes, values);
+    }
+
+    static void assertBudget(String operation, long budget, long actual) {
+        assertTrue(operation + " allocated " + actual + " bytes, budget " + budget, actual <= budget);
+    }
+
+    static void assertSlope(String operation, String metric, double maxSlope, double actual) {
+        assertTrue(String.format(Locale.ROOT, "%s %s grows as n^%.2f, limit n^%.2f", operation, metric, actual, maxSlope),
+            actual <= maxSlope);
+    }
+
+    /** Gates the growth of allocated bytes, which does not depend on machine load. */
+    static void assertAllocationGrowth(String operation, double maxSlope, IntFunction<Runnable> workload, int... sizes) {
+        assertSlope(operation, "allocation", maxSlope, growth(op -> allocatedBytes(op), workload, sizes));
+    }
+
+    /** Gates the growth of index lookup steps, counted exactly on a fresh fixture per size. */
+    static void assertStepGrowth(String operation, double maxSlope, IntFunction<NumberListImpl> fixture,
+                                 Consumer<NumberListImpl> op, int... sizes) {
+        double[] steps = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++)
+            steps[i] = indexSteps(fixture.apply(sizes[i]), op);
+        assertSlope(operation, "index steps", maxSlope, slope(sizes, steps));
+    }
+
+    @Test
+    public void testTraversalAllocations() {
+        NumberListImpl number = randomNumber(100_000, 3, 26);
+
+        assertBudget("iterator", 256, allocatedBytes(() -> {
+            long sum = 0;
+            for (byte d : number) sum += d;
+        }));
+        assertBudget("forEachDigit", 64, allocatedBytes(() -> number.forEachDigit(d -> { })));
+        assertBudget("getDigit", 64, allocatedBytes(() -> {
+            long sum = 0;
+            for (int i = 0; i < 100; i++) sum += number.getDigit(i * 1000);
+        }));
+    }
+
+    @Test
+    public void testConversionAllocations() {
+        int n = 10_000;
+        NumberListImpl number = randomNumber(n, 3, 26);
+        NumberListImpl other = randomNumber(n, 3, 62);
+
+        assertBudget("changeScale", 120L * n, allocatedBytes(number::changeScale));
+        assertBudget("toDecimalString", 48L * n,
+            allocatedBytes(() -> NumberListImpl.fromDigits(number.toByteArray(), 3).toDecimalString()));
+        assertBudget("additionalOperation", 500L * n, allocatedBytes(() -> number.additionalOperation(other)));
+    }
+
+    @Test
+    public void testFileLoadAllocations() throws IOException {
+        int n = 2_000;
+        File file = File.createTempFile("regression", ".txt");
+        try {
+            randomNumber(n, 3, 26).saveList(file);
+            assertBudget("load", 6_000L * n, allocatedBytes(() -> new NumberListImpl(file)));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTraversalIsLinear() {
+        NumberListImpl number = randomNumber(100_000, 3, 26);
+        assertEquals("iteration must not search nodes by index",
+            0, indexSteps(number, n -> n.forEachDigit(d -> { })));
+        assertEquals(0, indexSteps(number, n -> {
+            for (DigitCursor c = n.digitCursor(); c.hasNext(); ) c.nextDigit();
+        }));
+
+        assertStepGrowth("get(size / 2)", 1.1, n -> randomNumber(n, 3, 26),
+            n -> n.getDigit(n.size() / 2), 50_000, 100_000, 200_000, 400_000);
+    }
+
+    @Test
+    public void testConversionIsSubquadratic() {
+        assertAllocationGrowth("changeScale", 1.6, n -> {
+            NumberListImpl number = randomNumber(n, 3, 26);
+            return number::changeScale;
+        }, 2_000, 4_000, 8_000, 16_000);
+
+        assertAllocationGrowth("additionalOperation", 1.6, n -> {
+            NumberListImpl left = randomNumber(n, 3, 26);
+            NumberListImpl right = randomNumber(n, 3, 62);
+            return () -> left.additionalOperation(right);
+        }, 2_000, 4_000, 8_000, 16_000);
+    }
+
+    @Test
+    public void testFileLoadStaysAtKnownBaseline() throws IOException {
+        Map<Integer, File> files = new HashMap<>();
+        try {
+            int[] sizes = {500, 1_000, 2_000, 4_000};
+            for (int size : sizes) {
+                File file = File.createTempFile("regression", ".txt");
+                files.put(size, file);
+                randomNumber(size, 3, 26).saveList(file);
+            }
+
+            assertAllocationGrowth("load", LOAD_BASELINE_SLOPE, n -> {
+                File file = files.get(n);
+                return () -> new NumberListImpl(file);
+            }, sizes);
+        } finally {
+            files.values().forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testSortStaysAtKnownBaseline() {
+        assertStepGrowth("sortAscending", SORT_BASELINE_SLOPE, n -> randomNumber(n, 3, 26),
+            NumberListImpl::sortAscending, 50, 100, 200, 400);
+    }
+}
@@ -7,6 +7,8 @@
 
 package ua.kpi.comsys.test2.implementation;
 
+import java.util.Random;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -16,6 +18,12 @@ import static org.junit.Assume.assumeTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import ua.kpi.comsys.test2.NumberList;
+import ua.kpi.comsys.test2.implementation.internal.BaseConverter;
+import ua.kpi.comsys.test2.implementation.internal.ConversionCache;
+import ua.kpi.comsys.test2.implementation.internal.LazyScaleList;
 
 public class ScaleOfNotationChangeTest {
     static String BINARY="1000011010010011001101111100011011110001110011110110110001101";
@@ -74,6 +82,101 @@ public class ScaleOfNotationChangeTest {
 
     }
 
+    @Test
+    public void testToOctalLazy() {
+        assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 1);
+
+        LazyScaleList lazy = (LazyScaleList) list.changeScale(true);
+
+        assertEquals("Invalid size of lazy changeScale() ", OCTAL.length(), lazy.size());
+        assertEquals("Invalid low digit of lazy changeScale() ",
+            OCTAL.charAt(OCTAL.length() - 1) - '0', lazy.getDigit(OCTAL.length() - 1));
+        assertEquals("Invalid low digit of lazy changeScale() ",
+            OCTAL.charAt(OCTAL.length() - 5) - '0', lazy.getDigit(OCTAL.length() - 5));
+        assertFalse("Size and low digits must not require full conversion", lazy.isMaterialized());
+
+        assertEquals("Invalid result of lazy changeScale() ", OCTAL, lazy.toString());
+        assertTrue(lazy.isMaterialized());
+        assertEquals("Invalid result of toString() ", TERNARY, list.toString());
+    }
+
+    @Test
+    public void testLazyMatchesEager() {
+        Random rnd = new Random(26);
+        for (int n = 0; n < 200; n++) {
+            NumberListImpl number = new NumberListImpl(3);
+            int digits = rnd.nextInt(60);
+            for (int i = 0; i < digits; i++)
+                number.add((byte) rnd.nextInt(3));
+
+            NumberListImpl eager = number.changeScale();
+            NumberList lazy = number.changeScale(true);
+
+            assertEquals("Invalid size of lazy changeScale() for " + number, eager.size(), lazy.size());
+            if (!eager.isEmpty())
+                assertEquals("Invalid low digit for " + number,
+                    eager.getDigit(eager.size() - 1), lazy.getDigit(lazy.size() - 1));
+            assertEquals("Invalid result of lazy changeScale() for " + number, eager, lazy);
+        }
+    }
+
+    @Test
+    public void testCachedChangeScale() {
+        BaseConverter.enableCache(1000);
+        try {
+            NumberListImpl first = list.changeScale();
+            actual = new NumberListImpl(DECIMAL).changeScale();
+
+            assertEquals("Invalid result of cached changeScale() ", first, actual);
+            actual.set(0, (byte) 0);
+            assertEquals("Cached result must not be shared", first, list.changeScale());
+
+            ConversionCache.Stats stats = BaseConverter.cacheStats();
+            assertEquals(2, stats.hits());
+            assertEquals(2, stats.misses());
+        } finally {
+            BaseConverter.disableCache();
+        }
+    }
+
+    @Test
+    public void testBigIntegerRoundTrip() {
+        assertEquals(new java.math.BigInteger(DECIMAL), list.toBigInteger());
+        assertEquals(list, NumberListImpl.fromBigInteger(new java.math.BigInteger(DECIMAL), list.getBase()));
+        assertTrue(NumberListImpl.fromBigInteger(java.math.BigInteger.ZERO, 8).isEmpty());
+
+        Random rnd = new Random(26);
+        for (int base : new int[] {2, 3, 8, 10, 16}) {
+            java.math.BigInteger value = new java.math.BigInteger(5000, rnd);
+            NumberListImpl number = NumberListImpl.fromBigInteger(value, base);
+            String expected = value.toString(base);
+            assertEquals(expected.length(), number.size());
+            for (int i = 0; i < expected.length(); i++)
+                assertEquals(Character.digit(expected.charAt(i), base), number.getDigit(i));
+            assertEquals(value, number.toBigInteger());
+        }
+    }
+
+    @Test
+    public void testLargeConvertThroughBigInteger() {
+        Random rnd = new Random(26);
+        NumberListImpl number = new NumberListImpl(3);
+        number.add((byte) 1);
+        for (int i = 0; i < 600; i++)
+            number.add((byte) rnd.nextInt(3));
+
+        BaseConverter.setBigIntegerThreshold(Integer.MAX_VALUE);
+        NumberListImpl viaDecimal;
+        try {
+            viaDecimal = number.changeScale();
+        } finally {
+            BaseConverter.setBigIntegerThreshold(256);
+        }
+        actual = number.changeScale();
+        assertEquals("Invalid result of changeScale() through BigInteger", viaDecimal, actual);
+        assertEquals(number.toDecimalString(), actual.toDecimalString());
+    }
+
     @Test
     public void testToDecimal() {
         assumeTrue(NumberListImpl.getRecordBookNumber() % 5  == 2);